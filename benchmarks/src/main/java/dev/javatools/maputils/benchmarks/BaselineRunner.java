@@ -0,0 +1,44 @@
+package dev.javatools.maputils.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks with the gc profiler and writes the results as json, so that they can be kept as the baseline of a version.
+ * <pre>
+ *     java -cp target/benchmarks.jar dev.javatools.maputils.benchmarks.BaselineRunner results/map-utils-1.0.1.json [regex]
+ *
+ *     The time of each operation is reported with its allocation rate (gc.alloc.rate.norm, bytes per operation).
+ *     Compare two baselines with any JMH result viewer, for example https://jmh.morethan.io
+ * </pre>
+ */
+public final class BaselineRunner {
+
+    private static final String DEFAULT_OUTPUT = "results/baseline.json";
+    private static final String DEFAULT_INCLUDE = BaselineRunner.class.getPackageName() + ".*Benchmark";
+
+    private BaselineRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        String output = args.length > 0 ? args[0] : DEFAULT_OUTPUT;
+        String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+        File parent = new File(output).getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("Could not create the directory " + parent);
+        }
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.javatools.maputils.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates synthetic documents for the benchmarks, the same settings always create the same document.
+ * <pre>
+ *     depth      - levels of nested maps and lists below the root
+ *     width      - fields in every map, a third of them are maps and a third of them are lists while depth is left
+ *     listSize   - elements in every list, the elements are maps one level deeper
+ *     valueType  - values of the other fields, STRING, NUMBER or MIXED
+ *
+ *     Example, depth 1, width 3, listSize 2
+ *          {
+ *              "field0": {"field0": "value 1", "field1": "value 2", "field2": "value 3"},
+ *              "field1": [{"field0": "value 4", ...}, {"field0": "value 7", ...}],
+ *              "field2": "value 10"
+ *          }
+ * </pre>
+ */
+public final class DocumentGenerator {
+
+    public enum ValueType {
+        STRING, NUMBER, MIXED
+    }
+
+    private final int depth;
+    private final int width;
+    private final int listSize;
+    private final ValueType valueType;
+    private final Random random;
+    private int counter;
+
+    public DocumentGenerator(final int depth, final int width, final int listSize, final ValueType valueType) {
+        this.depth = depth;
+        this.width = width;
+        this.listSize = listSize;
+        this.valueType = valueType;
+        this.random = new Random(42);
+    }
+
+    /**
+     * @return new document with the settings of this generator
+     */
+    public Map<String, Object> document() {
+        return map(depth);
+    }
+
+    /**
+     * @param count number of documents
+     * @return documents with the same fields and different values
+     */
+    public List<Map<String, Object>> documents(final int count) {
+        List<Map<String, Object>> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(document());
+        }
+        return documents;
+    }
+
+    private Map<String, Object> map(final int level) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < width; i++) {
+            String key = "field" + i;
+            if (level > 0 && i % 3 == 0) {
+                map.put(key, map(level - 1));
+            } else if (level > 0 && i % 3 == 1) {
+                List<Object> list = new ArrayList<>(listSize);
+                for (int j = 0; j < listSize; j++) {
+                    list.add(map(level - 1));
+                }
+                map.put(key, list);
+            } else {
+                map.put(key, value());
+            }
+        }
+        return map;
+    }
+
+    private Object value() {
+        counter++;
+        switch (valueType) {
+            case STRING:
+                return "value " + random.nextInt(1_000_000);
+            case NUMBER:
+                return random.nextInt(1_000_000);
+            default:
+                switch (counter % 4) {
+                    case 0:
+                        return "value " + random.nextInt(1_000_000);
+                    case 1:
+                        return random.nextInt(1_000_000);
+                    case 2:
+                        return BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+                    default:
+                        return random.nextBoolean();
+                }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dev.javatools.maputils.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.MapPaths;
+import dev.javatools.maputils.MapProperty;
+import dev.javatools.maputils.MapUpdate;
+import dev.javatools.maputils.helpers.Constants;
+import dev.javatools.maputils.helpers.Format;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic document shared by the benchmarks, see {@link DocumentGenerator} for the parameters.
+ * <pre>
+ *     document     - generated document
+ *     copy         - same content as the document, in different map instances
+ *     changed      - same as the copy, with one value changed in the deepest level
+ *     json         - document as json text
+ *     paths        - PATH_COUNT paths of values in the document, spread over all the levels
+ *     updates      - the paths with their current values, setting them does not change the document
+ * </pre>
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+    static final int PATH_COUNT = 32;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    @Param({"8"})
+    public int width;
+
+    @Param({"10"})
+    public int listSize;
+
+    @Param({"MIXED"})
+    public DocumentGenerator.ValueType valueType;
+
+    public Map<String, Object> document;
+    public Map copy;
+    public Map changed;
+    public String json;
+    public List<String> paths;
+    public Map<String, Object> updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        document = new DocumentGenerator(depth, width, listSize, valueType).document();
+        json = Constants.jsonMapper.writeValueAsString(document);
+        copy = MapCreator.create(json, Format.JSON);
+        List<String> allPaths = new ArrayList<>(MapPaths.getPaths(document));
+        paths = new ArrayList<>(PATH_COUNT);
+        for (int i = 0; i < PATH_COUNT; i++) {
+            paths.add(allPaths.get(i * allPaths.size() / PATH_COUNT));
+        }
+        updates = new LinkedHashMap<>();
+        for (String path : paths) {
+            updates.put(path, MapProperty.get(path, document));
+        }
+        changed = MapCreator.create(json, Format.JSON);
+        MapUpdate.set(deepestPath(allPaths), changed, "changed");
+    }
+
+    private static String deepestPath(final List<String> allPaths) {
+        String deepest = allPaths.get(0);
+        for (String path : allPaths) {
+            if (path.split("\\.").length > deepest.split("\\.").length) {
+                deepest = path;
+            }
+        }
+        return deepest;
+    }
+}
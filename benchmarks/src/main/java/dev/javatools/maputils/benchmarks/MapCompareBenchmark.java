@@ -0,0 +1,50 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapCompare;
+import dev.javatools.maputils.MapDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to compare a synthetic document, see {@link DocumentState} for the document parameters.
+ * <pre>
+ *     equal        - MapCompare.equal with a copy of the document, every value is compared
+ *     notEqual     - MapCompare.equal with a copy that has one value changed in the deepest level
+ *     parallel     - MapCompare.equal with a copy of the document in parallel mode
+ *     diff         - MapCompare.diff with a copy that has one value changed in the deepest level
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapCompareBenchmark {
+
+    @Benchmark
+    public boolean equal(final DocumentState state) {
+        return MapCompare.equal(state.document, state.copy);
+    }
+
+    @Benchmark
+    public boolean notEqual(final DocumentState state) {
+        return MapCompare.equal(state.document, state.changed);
+    }
+
+    @Benchmark
+    public boolean parallel(final DocumentState state) {
+        return MapCompare.equal(state.document, state.copy, true);
+    }
+
+    @Benchmark
+    public MapDiff diff(final DocumentState state) {
+        return MapCompare.diff(state.document, state.changed);
+    }
+}
@@ -0,0 +1,40 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.helpers.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to create a map from a synthetic document, see {@link DocumentState} for the document parameters.
+ * See {@link MapCreatorFileBenchmark} for large files.
+ * <pre>
+ *     fromJson     - MapCreator.create(String, Format.JSON)
+ *     fromObject   - MapCreator.create(Object), the document itself is the object
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapCreatorBenchmark {
+
+    @Benchmark
+    public Map fromJson(final DocumentState state) {
+        return MapCreator.create(state.json, Format.JSON);
+    }
+
+    @Benchmark
+    public Map fromObject(final DocumentState state) {
+        return MapCreator.create(state.document);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.helpers.Constants;
+import dev.javatools.maputils.helpers.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to map for large json and yaml files.
+ * <pre>
+ *     streamFile   - MapCreator.create(File, Format), parses the file as a stream.
+ *     readString   - Files.readString followed by MapCreator.create(String, Format), the way files were read before.
+ *
+ *     Run with the gc profiler to see the memory that is allocated for each file, the difference between both
+ *     benchmarks is the String copy of the file content that streamFile does not build.
+ *          java -jar target/benchmarks.jar MapCreatorFileBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapCreatorFileBenchmark {
+
+    @Param({"JSON", "YAML"})
+    private Format format;
+
+    @Param({"10000", "100000"})
+    private int records;
+
+    private File input;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Map<String, Object>> people = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            Map<String, Object> address = new LinkedHashMap<>();
+            address.put("street", i + " E 75th St");
+            address.put("city", "Los Angeles");
+            address.put("state", "CA");
+            address.put("zip", String.valueOf(90000 + i % 1000));
+            Map<String, Object> person = new LinkedHashMap<>();
+            person.put("name", "Person " + i);
+            person.put("age", i % 100);
+            person.put("score", i / 7.0);
+            person.put("active", i % 2 == 0);
+            person.put("primaryAddress", address);
+            person.put("tags", List.of("tag" + i % 10, "tag" + i % 20));
+            people.add(person);
+        }
+        Map<String, Object> document = Map.of("people", people);
+        input = File.createTempFile("map-creator-benchmark", format == Format.JSON ? ".json" : ".yml");
+        if (format == Format.JSON) {
+            Constants.jsonMapper.writeValue(input, document);
+        } else {
+            Constants.getMapper(Format.YAML).writeValue(input, document);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input.toPath());
+    }
+
+    @Benchmark
+    public Map streamFile() {
+        return MapCreator.create(input, format);
+    }
+
+    @Benchmark
+    public Map readString() throws IOException {
+        return MapCreator.create(Files.readString(input.toPath()), format);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.CompiledFilter;
+import dev.javatools.maputils.MapFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to filter a list of small synthetic documents, a quarter of them match the filter.
+ * <pre>
+ *     sequential   - CompiledFilter.filter(List)
+ *     parallel     - CompiledFilter.filter(List, true)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapFilterBenchmark {
+
+    @Param({"100000"})
+    private int records;
+
+    private List<Map> source;
+    private CompiledFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new ArrayList<>(new DocumentGenerator(1, 8, 2, DocumentGenerator.ValueType.NUMBER).documents(records));
+        filter = MapFilter.compile(Map.of("field2", Map.of("gte", 500_000), "field5", Map.of("lt", 500_000)));
+    }
+
+    @Benchmark
+    public List<Map> sequential() {
+        return filter.filter(source);
+    }
+
+    @Benchmark
+    public List<Map> parallel() {
+        return filter.filter(source, true);
+    }
+}
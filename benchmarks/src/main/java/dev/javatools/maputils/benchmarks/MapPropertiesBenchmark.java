@@ -0,0 +1,46 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapPaths;
+import dev.javatools.maputils.MapProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to flatten a synthetic document, see {@link DocumentState} for the document parameters.
+ * <pre>
+ *     properties   - MapProperties.getProperties
+ *     paths        - MapPaths.getPaths
+ *     uniquePaths  - MapPaths.getUniquePaths
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapPropertiesBenchmark {
+
+    @Benchmark
+    public Map<String, Object> properties(final DocumentState state) {
+        return MapProperties.getProperties(state.document);
+    }
+
+    @Benchmark
+    public Set<String> paths(final DocumentState state) {
+        return MapPaths.getPaths(state.document);
+    }
+
+    @Benchmark
+    public Set<String> uniquePaths(final DocumentState state) {
+        return MapPaths.getUniquePaths(state.document);
+    }
+}
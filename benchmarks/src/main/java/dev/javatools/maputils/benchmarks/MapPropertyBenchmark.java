@@ -0,0 +1,43 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read one value from a synthetic document, see {@link DocumentState} for the document parameters.
+ * <pre>
+ *     get          - MapProperty.get for each of the paths of the state
+ *     project      - MapProperty.project with all the paths of the state, one walk for all of them
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(DocumentState.PATH_COUNT)
+public class MapPropertyBenchmark {
+
+    @Benchmark
+    public void get(final DocumentState state, final Blackhole blackhole) {
+        for (String path : state.paths) {
+            blackhole.consume(MapProperty.get(path, state.document));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> project(final DocumentState state) {
+        return MapProperty.project(state.document, state.paths);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to sort a synthetic document, see {@link DocumentState} for the document parameters.
+ * <pre>
+ *     sequential   - MapSort.getSortedMap(Map, Map)
+ *     parallel     - MapSort.getSortedMap(Map, Map, true)
+ *     sortedLists  - MapSort.getSortedMap(Map, Map) with a sort key on every list of maps
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MapSortBenchmark {
+
+    private static final Map<String, String> LIST_KEYS = Map.of("field1[]", "field2", "field1[].field1[]", "field2, field5");
+
+    @Benchmark
+    public Map sequential(final DocumentState state) {
+        return MapSort.getSortedMap(state.document, Map.of());
+    }
+
+    @Benchmark
+    public Map parallel(final DocumentState state) {
+        return MapSort.getSortedMap(state.document, Map.of(), true);
+    }
+
+    @Benchmark
+    public Map sortedLists(final DocumentState state) {
+        return MapSort.getSortedMap(state.document, LIST_KEYS);
+    }
+}
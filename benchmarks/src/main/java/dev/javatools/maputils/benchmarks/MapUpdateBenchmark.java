@@ -0,0 +1,45 @@
+package dev.javatools.maputils.benchmarks;
+
+import dev.javatools.maputils.MapUpdate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to set one value in a synthetic document, see {@link DocumentState} for the document parameters.
+ * The values are set to their current values, so the document is the same for every invocation.
+ * <pre>
+ *     set          - MapUpdate.set for each of the paths of the state
+ *     setAll       - MapUpdate.setAll with all the paths of the state, one walk for all of them
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(DocumentState.PATH_COUNT)
+public class MapUpdateBenchmark {
+
+    @Benchmark
+    public Map set(final DocumentState state) {
+        for (Map.Entry<String, Object> update : state.updates.entrySet()) {
+            MapUpdate.set(update.getKey(), state.document, update.getValue());
+        }
+        return state.document;
+    }
+
+    @Benchmark
+    public Map setAll(final DocumentState state) {
+        MapUpdate.setAll(state.document, state.updates);
+        return state.document;
+    }
+}
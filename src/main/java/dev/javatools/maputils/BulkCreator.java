@@ -0,0 +1,161 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads many files at the same time, each file with {@link MapCreator#create(java.io.File, Format)}.
+ * <pre>
+ *     maxConcurrency workers are started on the executor, each worker takes the next file that is not read yet
+ *     until all the files are read, so no more than maxConcurrency files are open at the same time whatever the executor is.
+ *          worker 1    file 0, file 2, file 5 ...
+ *          worker 2    file 1, file 3, file 4 ...
+ *     The results are kept at the position of their file, so they are in the order of the files.
+ *     Without an executor the workers run on virtual threads when the runtime has them (Java 21 and later),
+ *     otherwise on a pool of maxConcurrency daemon threads, that is shut down when all the files are read.
+ *     The exceptions of a file are kept in its result, an Error like OutOfMemoryError stops the workers and is thrown.
+ * </pre>
+ */
+final class BulkCreator {
+
+    static final int DEFAULT_CONCURRENCY = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private static final Method VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutor();
+
+    private BulkCreator() {
+    }
+
+    /**
+     * @param inputs         files to read
+     * @param format         format of the files
+     * @param executor       runs the workers, null to use virtual threads or a new pool
+     * @param maxConcurrency maximum number of files that are read at the same time
+     * @return result of each file, in the order of the files
+     */
+    static List<CreateResult> createAll(final Collection<Path> inputs, final Format format, final Executor executor, final int maxConcurrency) {
+        if (null == inputs || null == format) {
+            throw new MapUtilsException("Not a valid input, inputs and format are mandatory.");
+        }
+        if (maxConcurrency <= 0) {
+            throw new MapUtilsException("Not a valid input, maxConcurrency should be positive.");
+        }
+        Path[] paths = inputs.toArray(new Path[0]);
+        CreateResult[] results = new CreateResult[paths.length];
+        int workers = Math.min(maxConcurrency, paths.length);
+        if (workers == 0) {
+            return new ArrayList<>();
+        }
+        ExecutorService ownExecutor = null == executor ? newExecutor(workers) : null;
+        try {
+            run(paths, format, results, null == executor ? ownExecutor : executor, workers);
+        } catch (InterruptedException interruptedException) {
+            if (null != ownExecutor) {
+                // the files that are being read are abandoned, the workers stop at their next file
+                ownExecutor.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+            throw new MapUtilsException(interruptedException);
+        } finally {
+            if (null != ownExecutor) {
+                ownExecutor.shutdown();
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (null == results[i]) {
+                // a worker of the given executor stopped without a result for its file
+                results[i] = new CreateResult(paths[i], null, new MapUtilsException(paths[i] + " was not read."));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static void run(final Path[] paths, final Format format, final CreateResult[] results, final Executor executor,
+                            final int workers) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(workers);
+        AtomicReference<Error> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            try {
+                for (int i = next.getAndIncrement(); i < paths.length && null == failure.get() && !Thread.currentThread().isInterrupted();
+                     i = next.getAndIncrement()) {
+                    results[i] = create(paths[i], format);
+                }
+            } catch (Error error) {
+                // the other workers stop at their next file and the error is thrown to the caller
+                failure.compareAndSet(null, error);
+            } finally {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException rejectedExecutionException) {
+                // the files of the rejected worker are taken by the other workers, or by this thread
+                done.countDown();
+            }
+        }
+        done.await();
+        if (null != failure.get()) {
+            throw failure.get();
+        }
+        if (next.get() < paths.length) {
+            worker.run();
+        }
+    }
+
+    private static CreateResult create(final Path path, final Format format) {
+        if (null == path) {
+            return new CreateResult(null, null, new MapUtilsException("Not a valid input, path is mandatory."));
+        }
+        try {
+            return new CreateResult(path, MapCreator.create(path.toFile(), format), null);
+        } catch (MapUtilsException mapUtilsException) {
+            return new CreateResult(path, null, mapUtilsException);
+        } catch (RuntimeException | StackOverflowError exception) {
+            // a StackOverflowError is the error of a very deep document, not of the runtime
+            return new CreateResult(path, null, new MapUtilsException(exception));
+        }
+    }
+
+    private static ExecutorService newExecutor(final int threads) {
+        if (null != VIRTUAL_THREAD_EXECUTOR) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException exception) {
+                // virtual threads are a preview feature that is not enabled, use platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "map-creator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The library is built for Java 11, so the virtual threads of newer runtimes are looked up when the class is loaded.
+     *
+     * @return Executors.newVirtualThreadPerTaskExecutor, null if the runtime does not have it
+     */
+    private static Method virtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException noSuchMethodException) {
+            return null;
+        }
+    }
+}
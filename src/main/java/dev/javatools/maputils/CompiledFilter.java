@@ -0,0 +1,238 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Filter that is parsed once, so that it can be applied to any number of maps, see {@link MapFilter} for the filter format.
+ * <pre>
+ *     Every field of the filter is compiled into a path and a condition, a map matches the filter when it satisfies
+ *     all the conditions, and the conditions are checked in the order of the filter until the first one that fails.
+ *     Instances are immutable and can be shared between threads.
+ * </pre>
+ */
+public final class CompiledFilter implements Predicate<Map> {
+
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private enum Operator {
+        EQ, NE, GT, GTE, LT, LTE, IN, EXISTS
+    }
+
+    /**
+     * One condition on the value at a path.
+     */
+    private static final class Condition {
+        private final CompiledPath path;
+        private final Operator operator;
+        private final Object expected;
+        private final Set<Object> members;
+
+        private Condition(final CompiledPath path, final Operator operator, final Object expected, final Set<Object> members) {
+            this.path = path;
+            this.operator = operator;
+            this.expected = expected;
+            this.members = members;
+        }
+
+        private boolean test(final Map source) {
+            Object actual = path.get(source);
+            switch (operator) {
+                case EQ:
+                    return equal(actual, expected);
+                case NE:
+                    return !equal(actual, expected);
+                case GT:
+                    return comparable(actual, expected) && compare(actual, expected) > 0;
+                case GTE:
+                    return comparable(actual, expected) && compare(actual, expected) >= 0;
+                case LT:
+                    return comparable(actual, expected) && compare(actual, expected) < 0;
+                case LTE:
+                    return comparable(actual, expected) && compare(actual, expected) <= 0;
+                case IN:
+                    return members.contains(memberKey(actual));
+                default:
+                    return (null != actual) == (Boolean) expected;
+            }
+        }
+    }
+
+    private final Map filter;
+    private final Condition[] conditions;
+
+    private CompiledFilter(final Map filter, final Condition[] conditions) {
+        this.filter = filter;
+        this.conditions = conditions;
+    }
+
+    /**
+     * @param filter filter in the format described in {@link MapFilter}
+     * @return compiled filter
+     */
+    static CompiledFilter compile(final Map filter) {
+        if (null == filter) {
+            throw new MapUtilsException("Not a valid input, filter is mandatory.");
+        }
+        List<Condition> conditions = new ArrayList<>();
+        for (Object item : filter.entrySet()) {
+            Map.Entry entry = (Map.Entry) item;
+            CompiledPath path = MapProperty.compile(String.valueOf(entry.getKey()));
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                for (Object operatorItem : ((Map) value).entrySet()) {
+                    Map.Entry operatorEntry = (Map.Entry) operatorItem;
+                    conditions.add(condition(path, operator(operatorEntry.getKey()), operatorEntry.getValue()));
+                }
+            } else if (value instanceof Collection) {
+                conditions.add(condition(path, Operator.IN, value));
+            } else {
+                conditions.add(condition(path, Operator.EQ, value));
+            }
+        }
+        return new CompiledFilter(filter, conditions.toArray(new Condition[0]));
+    }
+
+    /**
+     * @param source map that needs to be checked
+     * @return true if the map satisfies all the conditions of the filter
+     */
+    @Override
+    public boolean test(final Map source) {
+        if (null == source) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (!condition.test(source)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param source maps that need to be checked
+     * @return maps that satisfy the filter, in the same order as the source
+     */
+    public List<Map> filter(final List<Map> source) {
+        return filter(source, false);
+    }
+
+    /**
+     * @param source   maps that need to be checked
+     * @param parallel if true, large lists are checked in parallel in the common fork join pool
+     * @return maps that satisfy the filter, in the same order as the source
+     */
+    public List<Map> filter(final List<Map> source, final boolean parallel) {
+        if (null == source) {
+            return new ArrayList<>();
+        }
+        if (parallel && source.size() >= PARALLEL_THRESHOLD) {
+            return source.parallelStream().filter(this).collect(Collectors.toList());
+        }
+        List<Map> results = new ArrayList<>();
+        for (Map item : source) {
+            if (test(item)) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the filter this instance was compiled from
+     */
+    public Map getFilter() {
+        return filter;
+    }
+
+    private static Operator operator(final Object name) {
+        for (Operator operator : Operator.values()) {
+            if (operator.name().equalsIgnoreCase(String.valueOf(name))) {
+                return operator;
+            }
+        }
+        throw new MapUtilsException("Not a valid filter operator: " + name);
+    }
+
+    private static Condition condition(final CompiledPath path, final Operator operator, final Object value) {
+        switch (operator) {
+            case IN:
+                if (!(value instanceof Collection)) {
+                    throw new MapUtilsException(path + ": in needs a list of values.");
+                }
+                Set<Object> members = new HashSet<>();
+                for (Object member : (Collection) value) {
+                    members.add(memberKey(member));
+                }
+                return new Condition(path, operator, value, members);
+            case EXISTS:
+                if (!(value instanceof Boolean)) {
+                    throw new MapUtilsException(path + ": exists needs true or false.");
+                }
+                return new Condition(path, operator, value, null);
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                if (!(value instanceof Number) && !(value instanceof String)) {
+                    throw new MapUtilsException(path + ": " + operator.name().toLowerCase() + " needs a number or a String.");
+                }
+                return new Condition(path, operator, value, null);
+            default:
+                return new Condition(path, operator, value, null);
+        }
+    }
+
+    private static boolean equal(final Object actual, final Object expected) {
+        if (actual instanceof Number && expected instanceof Number) {
+            return MapConverter.compareNumbers((Number) actual, (Number) expected) == 0;
+        }
+        return null == actual ? null == expected : actual.equals(expected);
+    }
+
+    /**
+     * @return true if both the values are numbers or both are Strings, values of other types are not in order
+     * and never satisfy gt, gte, lt or lte.
+     */
+    private static boolean comparable(final Object actual, final Object expected) {
+        return actual instanceof Number && expected instanceof Number || actual instanceof String && expected instanceof String;
+    }
+
+    /**
+     * Numbers are compared on their value, Strings alphabetically, see {@link #comparable(Object, Object)}.
+     */
+    private static int compare(final Object actual, final Object expected) {
+        if (actual instanceof Number) {
+            return MapConverter.compareNumbers((Number) actual, (Number) expected);
+        }
+        return ((String) actual).compareTo((String) expected);
+    }
+
+    /**
+     * @return value that is used to look up the value in a set of members, numbers with the same value have the same key,
+     * NaN and the infinities are their Double value.
+     */
+    private static Object memberKey(final Object value) {
+        if (value instanceof Number && MapConverter.isNonFinite((Number) value)) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Number) {
+            return MapConverter.toBigDecimal((Number) value).stripTrailingZeros();
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(filter);
+    }
+}
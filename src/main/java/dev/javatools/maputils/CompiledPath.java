@@ -0,0 +1,299 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map path that is parsed once into typed segments, so that it can be evaluated against any number of maps
+ * without parsing the path again.
+ * <pre>
+ *     Example:
+ *          CompiledPath path = MapProperty.compile("friends[{name=Lenna Paprocki}].associatedAddresses[2].zip");
+ *          Object zip = path.get(person);
+ *
+ *     The path format is the same as {@link MapProperty#get(String, Map)}, every element in the path is one of
+ *          name            - KEY, field in the map
+ *          friends[]       - FIRST, first element of the list
+ *          friends[2]      - INDEX, element at that location in the list
+ *          friends[{k=v}]  - FILTER, first element of the list that matches all the filters
+ *     Instances are immutable and can be shared between threads.
+ * </pre>
+ */
+public final class CompiledPath {
+
+    private static final char PATH_DELIMITER = '.';
+    private static final char OPEN_SQUARE = '[';
+    private static final char CLOSE_SQUARE = ']';
+    private static final char OPEN_CURLY = '{';
+    private static final String CLOSE_CURLY = "}";
+    private static final String EQUAL = "=";
+
+    enum Type {
+        KEY, FIRST, INDEX, FILTER, INVALID
+    }
+
+    /**
+     * One element of the path, for example "friends[{name=Art Venere}]".
+     */
+    static final class Segment {
+        final Type type;
+        final String text;
+        final String key;
+        final int index;
+        final String[] filterKeys;
+        final String[] filterValues;
+        final String error;
+
+        private Segment(final Type type, final String text, final String key, final int index,
+                        final String[] filterKeys, final String[] filterValues, final String error) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+            this.index = index;
+            this.filterKeys = filterKeys;
+            this.filterValues = filterValues;
+            this.error = error;
+        }
+
+        boolean isList() {
+            return type != Type.KEY;
+        }
+
+        /**
+         * @param element list element that needs to be checked
+         * @return true if the element is a map that has all the filter values.
+         */
+        boolean matches(final Object element) {
+            Map currentMap = (Map) element;
+            for (int i = 0; i < filterKeys.length; i++) {
+                Object value = currentMap.get(filterKeys[i]);
+                if (null == value || !value.equals(filterValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Same as {@link #matches(Object)}, but the values are compared on their String representation.
+         *
+         * @param element list element that needs to be checked
+         * @return true if the element is a map that has all the filter values.
+         */
+        boolean matchesText(final Object element) {
+            Map currentMap = (Map) element;
+            for (int i = 0; i < filterKeys.length; i++) {
+                Object value = currentMap.get(filterKeys[i]);
+                if (null == value || !value.toString().equals(filterValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final String path;
+    private final Segment[] segments;
+
+    private CompiledPath(final String path, final Segment[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * @param path path to the field in Map, see {@link MapProperty} for the supported format.
+     * @return parsed representation of the path
+     */
+    static CompiledPath compile(final String path) {
+        if (null == path) {
+            throw new MapUtilsException("Not a valid input, path is mandatory.");
+        }
+        return new CompiledPath(path, parse(path, false));
+    }
+
+    /**
+     * @param path   path to the field in Map
+     * @param update true to parse the path the way {@link MapUpdate} reads it, elements and filters are trimmed
+     *               and any criteria that is not a number or a filter refers to the first element of the list.
+     * @return typed segments of the path
+     */
+    static Segment[] parse(final String path, final boolean update) {
+        List<String> elements = split(path);
+        Segment[] segments = new Segment[elements.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = parseSegment(update ? elements.get(i).trim() : elements.get(i), update);
+        }
+        return segments;
+    }
+
+    /**
+     * @param sourceMap Source map that needs to be searched
+     * @return the value at this path, if the path does not exist, it will return null.
+     */
+    public Object get(final Map sourceMap) {
+        Object currentValue = sourceMap;
+        for (int i = 0; i < segments.length && null != currentValue; i++) {
+            currentValue = get(segments[i], (Map) currentValue);
+        }
+        return currentValue;
+    }
+
+    /**
+     * @return the path this instance was compiled from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    Segment[] getSegments() {
+        return segments;
+    }
+
+    static Object get(final Segment segment, final Map sourceMap) {
+        Object value = sourceMap.get(segment.key);
+        if (segment.type == Type.KEY || null == value) {
+            return value;
+        }
+        if (!(value instanceof List)) {
+            throw new MapUtilsException("Did not found list at property: " + segment.text);
+        }
+        List list = (List) value;
+        if (list.isEmpty()) {
+            return null;
+        }
+        switch (segment.type) {
+            case FIRST:
+                return list.get(0);
+            case INDEX:
+                return list.size() > segment.index ? list.get(segment.index) : null;
+            case FILTER:
+                int[] candidates = list instanceof MapIndex ? ((MapIndex) list).candidates(segment) : null;
+                if (null != candidates) {
+                    for (int candidate : candidates) {
+                        if (segment.matches(list.get(candidate))) {
+                            return list.get(candidate);
+                        }
+                    }
+                    return null;
+                }
+                for (Object element : list) {
+                    if (segment.matches(element)) {
+                        return element;
+                    }
+                }
+                return null;
+            default:
+                throw new MapUtilsException(segment.error);
+        }
+    }
+
+    /**
+     * Splits the path on the delimiter, delimiters inside the square brackets are part of the filter value.
+     * Trailing empty elements are dropped, same as {@link String#split(String)}.
+     */
+    private static List<String> split(final String path) {
+        List<String> elements = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char current = path.charAt(i);
+            if (current == OPEN_SQUARE) {
+                depth++;
+            } else if (current == CLOSE_SQUARE && depth > 0) {
+                depth--;
+            } else if (current == PATH_DELIMITER && depth == 0) {
+                elements.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (elements.isEmpty()) {
+            elements.add(path);
+            return elements;
+        }
+        elements.add(path.substring(start));
+        int size = elements.size();
+        while (size > 0 && elements.get(size - 1).isEmpty()) {
+            elements.remove(--size);
+        }
+        return elements;
+    }
+
+    private static Segment parseSegment(final String element, final boolean update) {
+        int open = element.indexOf(OPEN_SQUARE);
+        if (open < 0 || element.charAt(element.length() - 1) != CLOSE_SQUARE) {
+            return new Segment(Type.KEY, element, element, -1, null, null, null);
+        }
+        String key = element.substring(0, open);
+        String criteria = element.substring(element.lastIndexOf(OPEN_SQUARE) + 1, element.length() - 1);
+        if (criteria.isEmpty()) {
+            return new Segment(Type.FIRST, element, key, 0, null, null, null);
+        }
+        if (isNumber(criteria)) {
+            return new Segment(Type.INDEX, element, key, Integer.parseInt(criteria), null, null, null);
+        }
+        if (criteria.length() > 1 && criteria.charAt(0) == OPEN_CURLY && criteria.endsWith(CLOSE_CURLY)) {
+            return update ? parseUpdateFilter(element, key, criteria) : parseFilter(element, key, criteria);
+        }
+        if (update) {
+            return new Segment(Type.FIRST, element, key, 0, null, null, null);
+        }
+        return new Segment(Type.INVALID, element, key, -1, null, null, "wrong filter criteria on list:" + element);
+    }
+
+    private static Segment parseFilter(final String element, final String key, final String criteria) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        for (String individualFilter : criteria.split(CLOSE_CURLY)) {
+            int start = individualFilter.indexOf(OPEN_CURLY);
+            String[] keyValue = start < 0 ? null : individualFilter.substring(start + 1).split(EQUAL);
+            if (null == keyValue || keyValue.length != 2) {
+                String filter = start < 0 ? individualFilter : individualFilter.substring(start + 1);
+                return new Segment(Type.INVALID, element, key, -1, null, null, "Not a valid filter: " + filter);
+            }
+            filters.put(keyValue[0], keyValue[1]);
+        }
+        return new Segment(Type.FILTER, element, key, -1,
+                filters.keySet().toArray(new String[0]), filters.values().toArray(new String[0]), null);
+    }
+
+    private static Segment parseUpdateFilter(final String element, final String key, final String criteria) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        for (String individualFilter : criteria.trim().split(CLOSE_CURLY)) {
+            String filter = individualFilter.substring(individualFilter.indexOf(OPEN_CURLY) + 1);
+            String[] keyValue = filter.split(EQUAL);
+            if (keyValue.length < 2) {
+                return new Segment(Type.INVALID, element, key, -1, null, null, "Not a valid filter: " + filter);
+            }
+            filters.put(keyValue[0].trim(), keyValue[1].trim());
+        }
+        return new Segment(Type.FILTER, element, key, -1,
+                filters.keySet().toArray(new String[0]), filters.values().toArray(new String[0]), null);
+    }
+
+    private static boolean isNumber(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof CompiledPath && path.equals(((CompiledPath) other).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Result of one file of {@link MapCreator#createAll(java.util.Collection, dev.javatools.maputils.helpers.Format)},
+ * either the map of the file or the error that stopped it from being read.
+ * <pre>
+ *     Example:
+ *          for (CreateResult result : MapCreator.createAll(paths, Format.AUTO)) {
+ *              if (result.isSuccess()) {
+ *                  configs.put(result.getPath(), result.getMap());
+ *              } else {
+ *                  log.warn("Skipped " + result.getPath(), result.getError());
+ *              }
+ *          }
+ * </pre>
+ */
+public final class CreateResult {
+
+    private final Path path;
+    private final Map map;
+    private final MapUtilsException error;
+
+    CreateResult(final Path path, final Map map, final MapUtilsException error) {
+        this.path = path;
+        this.map = map;
+        this.error = error;
+    }
+
+    /**
+     * @return file that was read
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return Map representation of the file content, null if the file could not be read
+     */
+    public Map getMap() {
+        return map;
+    }
+
+    /**
+     * @return the error that stopped the file from being read, null if it was read
+     */
+    public MapUtilsException getError() {
+        return error;
+    }
+
+    /**
+     * @return true if the file was read
+     */
+    public boolean isSuccess() {
+        return null == error;
+    }
+
+    @Override
+    public String toString() {
+        return path + (isSuccess() ? ": ok" : ": " + error.getMessage());
+    }
+}
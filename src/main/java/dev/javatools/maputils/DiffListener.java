@@ -0,0 +1,32 @@
+package dev.javatools.maputils;
+
+/**
+ * Receives the differences between two maps as {@link MapCompare#diff(java.util.Map, java.util.Map, DiffListener)} finds them.
+ * <pre>
+ *     Paths have the same format as the properties of {@link MapProperties}, for example friends[2].primaryAddress.city
+ *     Added and removed values can be a whole Map or List, when the field is missing in the other map.
+ *     Lists are compared without considering the order, so the elements of a list are only added or removed.
+ *     The path of an element has its position in the list it is from, left list for removed and right list for added elements.
+ * </pre>
+ */
+public interface DiffListener {
+
+    /**
+     * @param path  path that is only in the right map
+     * @param value value in the right map
+     */
+    void added(String path, Object value);
+
+    /**
+     * @param path  path that is only in the left map
+     * @param value value in the left map
+     */
+    void removed(String path, Object value);
+
+    /**
+     * @param path  path that is in both the maps with different values
+     * @param left  value in the left map
+     * @param right value in the right map
+     */
+    void changed(String path, Object left, Object right);
+}
@@ -1,7 +1,11 @@
 package dev.javatools.maputils;
 
+import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
+
+import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * MapCompare utility will compare two maps and returns true if both maps are same. Otherwise it will return false.
@@ -22,32 +26,65 @@ public final class MapCompare {
      * @return returns true if both the maps are equal, otherwise false.
      */
     public static boolean equal(Map left, Map right) {
+        return equal(left, right, false);
+    }
+
+    /**
+     * Both the maps are walked at the same time and the comparison stops at the first difference.
+     * Lists are compared without considering the order of the elements.
+     *
+     * @param left     First map that needs to be compared with Second map
+     * @param right    Second map that needs to be compared with First map
+     * @param parallel if true, the fields of very wide maps are compared in parallel in the common fork join pool
+     * @return returns true if both the maps are equal, otherwise false.
+     */
+    public static boolean equal(Map left, Map right, boolean parallel) {
         if (null == left ^ null == right) {
             return false;
         } else if (null == left && null == right) {
             return true;
         }
-        Map leftProperties = MapProperties.getProperties(left);
-        Map rightProperties = MapProperties.getProperties(right);
-        if (null == rightProperties ^ null == leftProperties) {
-            return false;
-        } else if (null == leftProperties && null == rightProperties) {
-            return true;
-        }
-        Set rightKeySet = rightProperties.keySet();
-        if (leftProperties.size() != rightProperties.size()) {
-            return false;
-        }
-        for (Object property : leftProperties.entrySet()) {
-            Map.Entry entry = Map.Entry.class.cast(property);
-            if (!rightKeySet.contains(entry.getKey())) {
-                return false;
-            }
-            if (!rightProperties.get(entry.getKey()).equals(entry.getValue())) {
-                return false;
-            }
+        long start = Metrics.start();
+        boolean equal = StructuralCompare.equal(left, right, parallel);
+        Metrics.stop(Operation.COMPARE, start, null);
+        return equal;
+    }
+
+    /**
+     * Finds the added, removed and changed paths in one walk over both the maps.
+     * <pre>
+     *     Example:
+     *          MapDiff diff = MapCompare.diff(before, after);
+     *          if (!diff.isEmpty()) {
+     *              diff.getChanged().forEach(path -> ...);
+     *          }
+     * </pre>
+     *
+     * @param left  First map, the paths that are only in this map are removed
+     * @param right Second map, the paths that are only in this map are added
+     * @return differences between both the maps, it is empty when both the maps are equal.
+     */
+    public static MapDiff diff(Map left, Map right) {
+        MapDiff mapDiff = new MapDiff();
+        diff(left, right, mapDiff);
+        return mapDiff;
+    }
+
+    /**
+     * Same as {@link #diff(Map, Map)}, but every difference is handed over to the listener as soon as it is found,
+     * so nothing is collected in memory.
+     *
+     * @param left     First map, the paths that are only in this map are removed
+     * @param right    Second map, the paths that are only in this map are added
+     * @param listener receives the differences, MapUtilsException will be thrown if it is null.
+     */
+    public static void diff(Map left, Map right, DiffListener listener) {
+        if (null == listener) {
+            throw new MapUtilsException("Not a valid input, listener is mandatory.");
         }
-        return true;
+        long start = Metrics.start();
+        StructuralDiff.diff(null == left ? Collections.emptyMap() : left, null == right ? Collections.emptyMap() : right, listener);
+        Metrics.stop(Operation.COMPARE, start, null);
     }
 
 }
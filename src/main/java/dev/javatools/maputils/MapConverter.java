@@ -0,0 +1,241 @@
+package dev.javatools.maputils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import dev.javatools.maputils.helpers.Constants;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts java objects into the Map/List/value tree that the json mapper would create after writing the object
+ * as json text and reading it back, without building the json text.
+ * <pre>
+ *     The object is written into a Jackson TokenBuffer, so every Jackson annotation and mapper setting is honoured,
+ *     and the serializers of each class are looked up once and reused by the mapper.
+ *     The tokens are then read back the same way the json parser reads the text
+ *          1. objects become LinkedHashMap and arrays become ArrayList
+ *          2. integral numbers become the smallest of Integer, Long and BigInteger that holds the value
+ *          3. floating point numbers become BigDecimal with the digits that are written into the json text
+ *          4. byte arrays become base64 Strings
+ * </pre>
+ */
+final class MapConverter {
+
+    private MapConverter() {
+    }
+
+    /**
+     * @param input object that needs to be converted
+     * @return Map/List/value representation of the input
+     */
+    static Object toTree(final Object input) {
+        TokenBuffer buffer = new TokenBuffer(Constants.jsonMapper, false);
+        try {
+            Constants.jsonMapper.writeValue(buffer, input);
+            try (JsonParser parser = buffer.asParser()) {
+                parser.nextToken();
+                return readValue(parser);
+            }
+        } catch (IOException ioException) {
+            throw new MapUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @param input object that needs to be converted, it should be serialized as a json object
+     * @return Map representation of the input, null if the input is null
+     */
+    static Map toMap(final Object input) {
+        return asMap(toTree(input), null == input ? null : input.getClass().getName());
+    }
+
+    /**
+     * @param input objects that need to be converted, they are written in one pass so the serializers are shared
+     * @return Map representation of each object, in the same order as the input
+     */
+    static List<Map> toMaps(final Iterable<?> input) {
+        List<Map> results = new ArrayList<>();
+        Object tree = toTree(input);
+        if (!(tree instanceof List)) {
+            throw new MapUtilsException("Could not convert " + input.getClass().getName() + " into a list of Maps.");
+        }
+        int index = 0;
+        for (Object item : (List) tree) {
+            results.add(asMap(item, "element " + index++ + " of the collection"));
+        }
+        return results;
+    }
+
+    private static Map asMap(final Object tree, final String description) {
+        if (null == tree || tree instanceof Map) {
+            return (Map) tree;
+        }
+        throw new MapUtilsException("Could not convert " + description + " into a Map, it is not an object.");
+    }
+
+    private static Object readValue(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = parser.getCurrentName();
+                    parser.nextToken();
+                    map.put(key, readValue(parser));
+                }
+                return map;
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser));
+                }
+                return list;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return normalizeNumber(parser.getNumberValue());
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case VALUE_EMBEDDED_OBJECT:
+                return readEmbedded(parser.getEmbeddedObject());
+            default:
+                throw new MapUtilsException("Unexpected token " + token + " while converting the object.");
+        }
+    }
+
+    /**
+     * @param value value from a Map or a List
+     * @return value as the json mapper reads it back after writing it as json text, Maps and Lists are returned as they are.
+     */
+    static Object normalizeValue(final Object value) {
+        if (null == value || value instanceof String || value instanceof Integer || value instanceof Boolean
+                || value instanceof Map || value instanceof List) {
+            return value;
+        }
+        if (value instanceof Number) {
+            return normalizeNumber((Number) value);
+        }
+        return toTree(value);
+    }
+
+    /**
+     * @param map Map that needs to be checked
+     * @return true if all the keys of the map are Strings, other keys are written as json text in different ways.
+     */
+    static boolean hasStringKeys(final Map map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param number number as it was written by the serializer
+     * @return the number that the json parser creates when it reads the text of this number
+     */
+    static Object normalizeNumber(final Number number) {
+        if (number instanceof Integer) {
+            return number;
+        }
+        if (number instanceof Long || number instanceof Short || number instanceof Byte) {
+            long value = number.longValue();
+            return value == (int) value ? (Object) (int) value : (Object) value;
+        }
+        if (number instanceof BigInteger) {
+            return normalizeInteger((BigInteger) number);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                // non numeric numbers are quoted in the json text
+                return number.toString();
+            }
+        }
+        String text = number.toString();
+        if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+            return normalizeInteger(new BigInteger(text));
+        }
+        return new BigDecimal(text);
+    }
+
+    /**
+     * @param first  number
+     * @param second number
+     * @return comparison of the values of the numbers, numbers of different types with the same value are equal
+     */
+    static int compareNumbers(final Number first, final Number second) {
+        if (isIntegral(first) && isIntegral(second)) {
+            return Long.compare(first.longValue(), second.longValue());
+        }
+        if ((first instanceof Double || first instanceof Float) && (second instanceof Double || second instanceof Float)) {
+            return Double.compare(first.doubleValue(), second.doubleValue());
+        }
+        if (isNonFinite(first) || isNonFinite(second)) {
+            // NaN and the infinities have no BigDecimal, every finite number is between the infinities and NaN is the largest
+            return Double.compare(finiteAsZero(first), finiteAsZero(second));
+        }
+        return toBigDecimal(first).compareTo(toBigDecimal(second));
+    }
+
+    /**
+     * @return true if the number is a NaN or an infinite Double or Float
+     */
+    static boolean isNonFinite(final Number number) {
+        return (number instanceof Double || number instanceof Float) && !Double.isFinite(number.doubleValue());
+    }
+
+    private static double finiteAsZero(final Number number) {
+        return isNonFinite(number) ? number.doubleValue() : 0;
+    }
+
+    static boolean isIntegral(final Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    static BigDecimal toBigDecimal(final Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    private static Object normalizeInteger(final BigInteger value) {
+        if (value.bitLength() < Integer.SIZE) {
+            return value.intValue();
+        } else if (value.bitLength() < Long.SIZE) {
+            return value.longValue();
+        }
+        return value;
+    }
+
+    private static Object readEmbedded(final Object embedded) throws IOException {
+        if (null == embedded) {
+            return null;
+        }
+        if (embedded instanceof byte[]) {
+            return Base64.getEncoder().encodeToString((byte[]) embedded);
+        }
+        // raw values and other embedded objects are only understood by the text parser
+        return Constants.jsonMapper.readValue(Constants.jsonMapper.writeValueAsString(embedded), Object.class);
+    }
+}
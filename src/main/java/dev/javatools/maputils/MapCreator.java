@@ -1,15 +1,28 @@
 package dev.javatools.maputils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.javatools.maputils.helpers.Constants;
 import dev.javatools.maputils.helpers.Format;
 import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -18,25 +31,39 @@ import java.util.Map;
  *     1. Json/yaml String or
  *     2. from a custom java models that you build in your project or
  *     3. from json/yaml String that is stored in a file.
+ *     4. from newline delimited json files, as a stream of maps.
+ *     5. from CBOR or Smile content, and write maps in any of the formats.
+ *     6. from many files at the same time.
+ *     With Format.AUTO the format is detected from the first bytes of the content.
  * </pre>
  */
 public final class MapCreator {
 
+    // bytes that are read to detect the format, enough to skip the white space before a json document
+    private static final int DETECT_SIZE = 1024;
+
     private MapCreator() {
     }
 
     /**
      * Convert json string that is in the file into a Map.
+     * The file is parsed as a stream, the content of the file is never loaded into a String.
      *
      * @param input, file containing the json String.
-     * @param format At this time we are supporting json and yaml types
+     * @param format json, yaml, cbor or smile, AUTO to detect it from the first bytes of the file, null is read as yaml
      * @return returns Map representation of the File content
      */
     public static Map create(final File input, final Format format) {
-        try {
-            Path tempFilePath = Path.of(input.getAbsolutePath());
-            String jsonString = Files.readString(tempFilePath);
-            return create(jsonString, format);
+        Format documentFormat = singleDocumentFormat(format);
+        long start = Metrics.start();
+        try (InputStream inputStream = documentFormat == Format.AUTO
+                ? new BufferedInputStream(Files.newInputStream(input.toPath())) : Files.newInputStream(input.toPath())) {
+            ObjectMapper mapper = Constants.getMapper(documentFormat == Format.AUTO ? detect(inputStream) : documentFormat);
+            try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+                Map result = mapper.readValue(parser, Map.class);
+                Metrics.stop(Operation.CREATE, start, result);
+                return result;
+            }
         } catch (IOException ioException) {
             throw new MapUtilsException(ioException);
         }
@@ -46,37 +73,216 @@ public final class MapCreator {
      * Create a Map from json String
      *
      * @param input  Json String
-     * @param format At this time we are supporting json and yaml types
+     * @param format json or yaml, AUTO to detect it from the first characters, null is read as yaml
      * @return returns Map representation of the File content
      */
     public static Map create(final String input, final Format format) {
+        Format documentFormat = singleDocumentFormat(format);
+        if (documentFormat.isBinary()) {
+            throw new MapUtilsException(documentFormat + " is a binary format, use MapCreator.create(byte[], Format) to read it.");
+        }
+        long start = Metrics.start();
         try {
-            Map mapInput;
-            if (format == Format.JSON) {
-                mapInput = Constants.jsonMapper.readValue(input, Map.class);
-            } else {
-                mapInput = Constants.yamlMapper.readValue(input, Map.class);
-            }
-            return mapInput;
+            Map result = Constants.getMapper(documentFormat == Format.AUTO ? Format.detect(input) : documentFormat).readValue(input, Map.class);
+            Metrics.stop(Operation.CREATE, start, result);
+            return result;
         } catch (JsonProcessingException jsonProcessingException) {
             throw new MapUtilsException(jsonProcessingException);
         }
     }
 
+    /**
+     * Create a Map from the content in any of the formats, for example a CBOR or Smile message.
+     *
+     * @param input  content of the document
+     * @param format format of the content, AUTO to detect it from the first bytes, null is read as yaml
+     * @return returns Map representation of the content
+     */
+    public static Map create(final byte[] input, final Format format) {
+        Format documentFormat = singleDocumentFormat(format);
+        if (null == input) {
+            throw new MapUtilsException("Not a valid input, input is mandatory.");
+        }
+        long start = Metrics.start();
+        try {
+            Map result = Constants.getMapper(documentFormat == Format.AUTO ? Format.detect(input, input.length) : documentFormat).readValue(input, Map.class);
+            Metrics.stop(Operation.CREATE, start, result);
+            return result;
+        } catch (IOException ioException) {
+            throw new MapUtilsException(ioException);
+        }
+    }
+
     /**
      * Convert any custom java model into a Map.
+     * The model is converted directly into the Map, it is not written into a json String and parsed back,
+     * but the Map has the same content as parsing the json of the model.
      *
      * @param input And custom model object that you want to convert to Map
      * @return returns Map representation of the File content
      */
     public static Map create(final Object input) {
+        long start = Metrics.start();
+        Map result = MapConverter.toMap(input);
+        Metrics.stop(Operation.CREATE, start, result);
+        return result;
+    }
+
+    /**
+     * Convert a collection of custom java models into Maps.
+     * All the models are converted in one pass, the serializers of each class are found once and reused for every model.
+     * MapCreator.create(null) calls this method, it returns null like {@link #create(Object)} does for null.
+     *
+     * @param input collection of custom model objects that you want to convert to Maps
+     * @return returns Map representation of each model, in the iteration order of the collection, null if the input is null
+     */
+    public static List<Map> create(final Collection<?> input) {
+        if (null == input) {
+            return null;
+        }
+        long start = Metrics.start();
+        List<Map> results = MapConverter.toMaps(input);
+        Metrics.stop(Operation.CREATE, start, results);
+        return results;
+    }
+
+    /**
+     * Read many files at the same time, for example all the configuration files of a service at startup.
+     * <pre>
+     *     The files are read on virtual threads when the runtime has them (Java 21 and later), otherwise on a pool of platform threads,
+     *     at most 2 files per core (at least 4) are read at the same time.
+     *     A file that can not be read does not stop the other files, its result has the error instead of the map.
+     *     An Error of the runtime, like OutOfMemoryError, stops the reads and is thrown.
+     * </pre>
+     *
+     * @param inputs files to read
+     * @param format format of the files, AUTO to detect the format of each file
+     * @return result of each file, in the iteration order of the files
+     */
+    public static List<CreateResult> createAll(final Collection<Path> inputs, final Format format) {
+        return BulkCreator.createAll(inputs, format, null, BulkCreator.DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Same as {@link #createAll(Collection, Format)}, on the threads of the executor.
+     *
+     * @param inputs         files to read
+     * @param format         format of the files, AUTO to detect the format of each file
+     * @param executor       runs the reads, null to use virtual threads or a new pool of platform threads
+     * @param maxConcurrency maximum number of files that are read at the same time
+     * @return result of each file, in the iteration order of the files
+     */
+    public static List<CreateResult> createAll(final Collection<Path> inputs, final Format format, final Executor executor, final int maxConcurrency) {
+        return BulkCreator.createAll(inputs, format, executor, maxConcurrency);
+    }
+
+    /**
+     * Read the maps from a file that has many documents, the file is memory mapped and parsed as a stream.
+     * <pre>
+     *     NDJSON - one json object per line, blank lines are skipped.
+     *              The file is split at the line breaks, so a parallel stream reads the parts of the file on all the cores
+     *                  try (Stream&lt;Map&gt; events = MapCreator.stream(path, Format.NDJSON)) {
+     *                      events.parallel().forEach(...);
+     *                  }
+     *     JSON, YAML, CBOR, SMILE, AUTO - the stream has the Map of the file.
+     * </pre>
+     * Close the stream to release the file.
+     *
+     * @param input  file containing the documents
+     * @param format format of the file
+     * @return stream of the Map representation of each document, in the order of the file
+     */
+    public static Stream<Map> stream(final Path input, final Format format) {
+        if (null == input || null == format) {
+            throw new MapUtilsException("Not a valid input, input and format are mandatory.");
+        }
+        if (format != Format.NDJSON) {
+            return Stream.of(create(input.toFile(), format));
+        }
         try {
+            FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+            NdjsonSpliterator spliterator = new NdjsonSpliterator(channel, 0, channel.size(), NdjsonSpliterator.WINDOW_SIZE);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException ioException) {
+                    throw new MapUtilsException(ioException);
+                }
+            });
+        } catch (IOException ioException) {
+            throw new MapUtilsException(ioException);
+        }
+    }
+
+    /**
+     * @return the format, yaml when there is no format, as it has always been read
+     */
+    private static Format singleDocumentFormat(final Format format) {
+        if (format == Format.NDJSON) {
+            throw new MapUtilsException("NDJSON has many documents, use MapCreator.stream to read it.");
+        }
+        return null == format ? Format.YAML : format;
+    }
 
-            String jsonString = Constants.jsonMapper.writeValueAsString(input);
-            return Constants.jsonMapper.readValue(jsonString, Map.class);
+    /**
+     * Write the map in the format, for example to send it as a CBOR or Smile message.
+     *
+     * @param input  Map that needs to be written
+     * @param format format of the content, JSON, YAML, CBOR or SMILE
+     * @return content of the map in the format, json and yaml are encoded as UTF-8
+     */
+    public static byte[] toBytes(final Map input, final Format format) {
+        try {
+            return writerMapper(input, format).writeValueAsBytes(input);
         } catch (JsonProcessingException jsonProcessingException) {
             throw new MapUtilsException(jsonProcessingException);
         }
     }
 
+    /**
+     * Write the map into a file in the format, the content is streamed into the file.
+     *
+     * @param input  Map that needs to be written
+     * @param output file that is created or replaced
+     * @param format format of the content, JSON, YAML, CBOR or SMILE
+     */
+    public static void write(final Map input, final File output, final Format format) {
+        ObjectMapper mapper = writerMapper(input, format);
+        if (null == output) {
+            throw new MapUtilsException("Not a valid input, output is mandatory.");
+        }
+        try {
+            mapper.writeValue(output, input);
+        } catch (IOException ioException) {
+            throw new MapUtilsException(ioException);
+        }
+    }
+
+    private static ObjectMapper writerMapper(final Map input, final Format format) {
+        if (null == input || null == format) {
+            throw new MapUtilsException("Not a valid input, input and format are mandatory.");
+        }
+        if (format == Format.AUTO || format == Format.NDJSON) {
+            throw new MapUtilsException("Not a valid format to write a map: " + format);
+        }
+        return Constants.getMapper(format);
+    }
+
+    /**
+     * @param inputStream stream that supports mark, it is reset to the start after the first bytes are read
+     * @return format of the content of the stream
+     */
+    private static Format detect(final InputStream inputStream) throws IOException {
+        byte[] bytes = new byte[DETECT_SIZE];
+        inputStream.mark(DETECT_SIZE);
+        int length = 0;
+        int read = 0;
+        while (length < DETECT_SIZE && read >= 0) {
+            read = inputStream.read(bytes, length, DETECT_SIZE - length);
+            length += Math.max(read, 0);
+        }
+        inputStream.reset();
+        return Format.detect(bytes, length);
+    }
+
 }
@@ -0,0 +1,132 @@
+package dev.javatools.maputils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Differences between two maps, see {@link MapCompare#diff(java.util.Map, java.util.Map)}.
+ * <pre>
+ *     Example:
+ *          MapDiff diff = MapCompare.diff(before, after);
+ *          diff.getChanged()   - [primaryAddress.city]
+ *          diff.getAdded()     - [friends[4]]
+ *          diff.getRemoved()   - [spouse]
+ * </pre>
+ */
+public final class MapDiff implements DiffListener {
+
+    public enum Type {
+        ADDED, REMOVED, CHANGED
+    }
+
+    /**
+     * One difference, left is null for added and right is null for removed paths.
+     */
+    public static final class Difference {
+        private final Type type;
+        private final String path;
+        private final Object left;
+        private final Object right;
+
+        Difference(final Type type, final String path, final Object left, final Object right) {
+            this.type = type;
+            this.path = path;
+            this.left = left;
+            this.right = right;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Object getLeft() {
+            return left;
+        }
+
+        public Object getRight() {
+            return right;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + path + ": " + left + " -> " + right;
+        }
+    }
+
+    private final List<Difference> differences = new ArrayList<>();
+
+    MapDiff() {
+    }
+
+    @Override
+    public void added(final String path, final Object value) {
+        differences.add(new Difference(Type.ADDED, path, null, value));
+    }
+
+    @Override
+    public void removed(final String path, final Object value) {
+        differences.add(new Difference(Type.REMOVED, path, value, null));
+    }
+
+    @Override
+    public void changed(final String path, final Object left, final Object right) {
+        differences.add(new Difference(Type.CHANGED, path, left, right));
+    }
+
+    /**
+     * @return all the differences in the order they were found
+     */
+    public List<Difference> getDifferences() {
+        return Collections.unmodifiableList(differences);
+    }
+
+    /**
+     * @return true if both the maps are equal
+     */
+    public boolean isEmpty() {
+        return differences.isEmpty();
+    }
+
+    /**
+     * @return sorted paths that are only in the right map
+     */
+    public Set<String> getAdded() {
+        return getPaths(Type.ADDED);
+    }
+
+    /**
+     * @return sorted paths that are only in the left map
+     */
+    public Set<String> getRemoved() {
+        return getPaths(Type.REMOVED);
+    }
+
+    /**
+     * @return sorted paths that have different values in both the maps
+     */
+    public Set<String> getChanged() {
+        return getPaths(Type.CHANGED);
+    }
+
+    private Set<String> getPaths(final Type type) {
+        Set<String> paths = new TreeSet<>();
+        for (Difference difference : differences) {
+            if (difference.type == type) {
+                paths.add(difference.path);
+            }
+        }
+        return paths;
+    }
+
+    @Override
+    public String toString() {
+        return differences.toString();
+    }
+}
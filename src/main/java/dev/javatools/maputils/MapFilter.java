@@ -1,21 +1,91 @@
 package dev.javatools.maputils;
 
+import dev.javatools.maputils.helpers.BoundedCache;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Coming soon: This will filter the maps based on the filter criteria provides and responds with the list of maps that satisfy the filter condition.
+ * Filters the maps based on the filter criteria provided and responds with the list of maps that satisfy the filter condition.
+ * <pre>
+ *     Each field of the filter is a path (see {@link MapProperty}) and the condition that the value at that path should satisfy
+ *          {
+ *              "name": "James Butt",                           - equal, numbers are compared on their value
+ *              "age": {"gte": 18, "lt": 65},                   - eq, ne, gt, gte, lt and lte, Strings are compared alphabetically
+ *              "primaryAddress.state": ["CA", "TX"],           - one of the values, same as {"in": ["CA", "TX"]}
+ *              "spouse": {"exists": true},                     - the path has a value or not
+ *              "friends[{name=Art Venere}].age": 28
+ *          }
+ *     A map is selected only when it satisfies all the conditions.
+ *
+ *     The filter is parsed into a {@link CompiledFilter}, the compiled filters are kept in a cache so that
+ *     the same filter is parsed only once, or compile it once and keep the CompiledFilter
+ *          CompiledFilter adults = MapFilter.compile(filter);
+ *          List&lt;Map&gt; results = adults.filter(source, true);  - large lists are filtered in parallel
+ * </pre>
  */
 public class MapFilter {
 
+    private static final int FILTER_CACHE_SIZE = 256;
+    private static final BoundedCache<Map, CompiledFilter> FILTER_CACHE = new BoundedCache<>(FILTER_CACHE_SIZE, CompiledFilter::compile);
+
     /**
-     * TODO: Implementation coming soon.
-     *
      * @param filter - filters that need to be applied on the map to confirm that this map is eligible for those filters
      * @param source - maps that need to be checked to make sure whether it satisfies those filters or not.
      * @return - list of maps that are eligible for the given filter
      */
     public List<Map> filter(Map filter, List<Map> source) {
-        return source;
+        return compile(filter).filter(source);
+    }
+
+    /**
+     * @param filter   - filters that need to be applied on the map to confirm that this map is eligible for those filters
+     * @param source   - maps that need to be checked to make sure whether it satisfies those filters or not.
+     * @param parallel - if true, large lists are checked in parallel
+     * @return - list of maps that are eligible for the given filter, in the same order as the source
+     */
+    public List<Map> filter(Map filter, List<Map> source, boolean parallel) {
+        return compile(filter).filter(source, parallel);
+    }
+
+    /**
+     * @param filter - filters in the format described above
+     * @return filter that can be applied to any number of maps, the same instance is returned for an equal filter
+     * as long as it is in the cache.
+     */
+    public static CompiledFilter compile(Map filter) {
+        if (null == filter) {
+            throw new MapUtilsException("Not a valid input, filter is mandatory.");
+        }
+        return FILTER_CACHE.get((Map) snapshot(filter));
+    }
+
+    /**
+     * The cache keeps a copy of the filter, so a filter that is changed after it is used is compiled again.
+     *
+     * @return copy of the maps and lists of the filter that can not be changed, in the same order
+     */
+    private static Object snapshot(final Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Object item : ((Map) value).entrySet()) {
+                Map.Entry entry = (Map.Entry) item;
+                copy.put(entry.getKey(), snapshot(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>();
+            for (Object element : (Collection) value) {
+                copy.add(snapshot(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
     }
 }
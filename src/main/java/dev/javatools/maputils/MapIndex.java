@@ -0,0 +1,221 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.CompiledPath.Segment;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * List of maps with hash indexes on some of the fields of its elements, so that the filters in the paths
+ * (for example "items[{id=42}]") are answered without scanning the whole list.
+ * <pre>
+ *     Example:
+ *          order.put("items", MapIndex.on((List) order.get("items"), "id"));
+ *          MapProperty.get("items[{id=42}].price", order);      - uses the index on id
+ *          MapUpdate.set("items[{id=42}].price", order, 10);    - uses the index on id
+ *
+ *     The index is used when all its keys are part of the filter, the other filters are checked on the elements found.
+ *     The indexes are built on the first lookup and dropped every time the list is changed through this instance,
+ *     or when a path in {@link MapUpdate} sets an indexed field of an element.
+ *     Call {@link #invalidate()} after the indexed fields of the elements are changed in any other way,
+ *     or after the list that was passed to {@link #on(List, String...)} is changed directly.
+ * </pre>
+ */
+public final class MapIndex extends AbstractList<Object> implements RandomAccess {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int[] NO_POSITIONS = new int[0];
+
+    /**
+     * Positions of the elements for each combination of the values of the keys, the values are compared as text.
+     */
+    private static final class Index {
+        private final String[] keys;
+        private final Map<String, int[]> positions = new HashMap<>();
+
+        private Index(final String[] keys) {
+            this.keys = keys;
+        }
+    }
+
+    private final List list;
+    private final List<String[]> keySets = new ArrayList<>();
+    private volatile Index[] indexes;
+
+    private MapIndex(final List list) {
+        this.list = list;
+    }
+
+    /**
+     * @param list list of maps that needs to be indexed, it is wrapped and not copied
+     * @param keys fields of the elements that are used together in the filters,
+     *             if the list is already a MapIndex, the index is added to the same instance.
+     * @return indexed list, that needs to be placed in the map instead of the original list
+     */
+    public static MapIndex on(final List list, final String... keys) {
+        if (null == list || null == keys || keys.length == 0) {
+            throw new MapUtilsException("Not a valid input, list and keys are mandatory.");
+        }
+        MapIndex mapIndex = list instanceof MapIndex ? (MapIndex) list : new MapIndex(list);
+        synchronized (mapIndex.keySets) {
+            mapIndex.keySets.add(keys.clone());
+        }
+        mapIndex.invalidate();
+        return mapIndex;
+    }
+
+    /**
+     * Drops the indexes, they are built again on the next lookup.
+     */
+    public void invalidate() {
+        indexes = null;
+    }
+
+    /**
+     * @param key field of the elements
+     * @return true if the field is part of any index
+     */
+    public boolean isIndexed(final String key) {
+        synchronized (keySets) {
+            for (String[] keys : keySets) {
+                for (String indexedKey : keys) {
+                    if (indexedKey.equals(key)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param segment filter segment of a path
+     * @return positions of the elements that may match the filter in the order of the list,
+     * null if there is no index for the keys of the filter.
+     */
+    int[] candidates(final Segment segment) {
+        for (Index index : getIndexes()) {
+            String text = lookupText(index.keys, segment);
+            if (null != text) {
+                return index.positions.getOrDefault(text, NO_POSITIONS);
+            }
+        }
+        return null;
+    }
+
+    private Index[] getIndexes() {
+        Index[] current = indexes;
+        if (null == current) {
+            current = build();
+            indexes = current;
+        }
+        return current;
+    }
+
+    private Index[] build() {
+        Index[] built;
+        synchronized (keySets) {
+            built = new Index[keySets.size()];
+            for (int i = 0; i < built.length; i++) {
+                built[i] = new Index(keySets.get(i));
+            }
+        }
+        for (Index index : built) {
+            Map<String, List<Integer>> positions = new HashMap<>();
+            for (int position = 0; position < list.size(); position++) {
+                Object element = list.get(position);
+                String text = element instanceof Map ? elementText(index.keys, (Map) element) : null;
+                if (null != text) {
+                    positions.computeIfAbsent(text, key -> new ArrayList<>(1)).add(position);
+                }
+            }
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                index.positions.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return built;
+    }
+
+    /**
+     * @return values of the keys in the element, null if any of them is missing, such an element never matches a filter.
+     */
+    private static String elementText(final String[] keys, final Map element) {
+        if (keys.length == 1) {
+            Object value = element.get(keys[0]);
+            return null == value ? null : value.toString();
+        }
+        StringBuilder text = new StringBuilder();
+        for (String key : keys) {
+            Object value = element.get(key);
+            if (null == value) {
+                return null;
+            }
+            text.append(value).append(KEY_SEPARATOR);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return values of the keys in the filter, null if any of the keys is not part of the filter.
+     */
+    private static String lookupText(final String[] keys, final Segment segment) {
+        if (keys.length == 1) {
+            int position = Arrays.asList(segment.filterKeys).indexOf(keys[0]);
+            return position < 0 ? null : segment.filterValues[position];
+        }
+        StringBuilder text = new StringBuilder();
+        for (String key : keys) {
+            int position = Arrays.asList(segment.filterKeys).indexOf(key);
+            if (position < 0) {
+                return null;
+            }
+            text.append(segment.filterValues[position]).append(KEY_SEPARATOR);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public Object get(final int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public Object set(final int index, final Object element) {
+        Object previous = list.set(index, element);
+        invalidate();
+        return previous;
+    }
+
+    @Override
+    public void add(final int index, final Object element) {
+        list.add(index, element);
+        modCount++;
+        invalidate();
+    }
+
+    @Override
+    public Object remove(final int index) {
+        Object removed = list.remove(index);
+        modCount++;
+        invalidate();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        list.clear();
+        modCount++;
+        invalidate();
+    }
+}
@@ -1,9 +1,14 @@
 package dev.javatools.maputils;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
 
 /**
@@ -68,10 +73,19 @@ public final class MapPaths {
      * To get unique paths, use getUniquePaths.
      */
     public static Set<String> getPaths(final Map input) {
+        return getPaths(input, null);
+    }
+
+    /**
+     * Same as {@link #getPaths(Map)}, the paths are taken from the symbols, so that documents with the same paths share them.
+     *
+     * @param input   Map to process
+     * @param symbols table of the paths, null to create new paths
+     * @return Sorted set of all the paths in the Map
+     */
+    public static Set<String> getPaths(final Map input, final PathSymbols symbols) {
         Set<String> results = new TreeSet<>();
-        Map treeMap = MapSort.getSortedMap(input);
-        MapPaths mapPaths = new MapPaths();
-        mapPaths.getPaths(treeMap, results, null, false);
+        collectPaths(input, results, false, symbols);
         return results;
     }
 
@@ -82,76 +96,130 @@ public final class MapPaths {
      * Paths related to the objects that are in the list/set/array of items are considered same.
      */
     public static Set<String> getUniquePaths(final Map input) {
+        return getUniquePaths(input, null);
+    }
+
+    /**
+     * Same as {@link #getUniquePaths(Map)}, the paths are taken from the symbols, so that documents with the same paths share them.
+     *
+     * @param input   Map to process
+     * @param symbols table of the paths, null to create new paths
+     * @return Sorted set of all the unique paths in the map.
+     */
+    public static Set<String> getUniquePaths(final Map input, final PathSymbols symbols) {
         Set<String> results = new TreeSet<>();
+        collectPaths(input, results, true, symbols);
+        return results;
+    }
+
+    /**
+     * Unique paths of many maps, for example to find the schema of a large number of documents.
+     * The maps are processed in parallel in the common fork join pool, each thread collects the paths into its own set
+     * and the sets are merged at the end.
+     *
+     * @param inputs Maps to process
+     * @return Sorted set of all the unique paths in all the maps.
+     */
+    public static Set<String> getUniquePathsOfAll(final Collection<? extends Map> inputs) {
+        return getUniquePathsOfAll(inputs.stream());
+    }
+
+    /**
+     * Same as {@link #getUniquePathsOfAll(Collection)}, the stream is processed in parallel.
+     *
+     * @param inputs Maps to process
+     * @return Sorted set of all the unique paths in all the maps.
+     */
+    public static Set<String> getUniquePathsOfAll(final Stream<? extends Map> inputs) {
+        Set<String> results = inputs.parallel().collect(HashSet::new, (paths, input) -> collectPaths(input, paths, true, null), Set::addAll);
+        return new TreeSet<>(results);
+    }
+
+    /**
+     * Unique paths of many maps, along with the number of maps that have each path.
+     * The maps are processed in parallel in the common fork join pool.
+     * <pre>
+     *     Example:
+     *          name=1000
+     *          primaryAddress.city=998
+     *          spouse.name=412
+     * </pre>
+     *
+     * @param inputs Maps to process
+     * @return Sorted map of all the unique paths and the number of maps in which the path occurs
+     */
+    public static Map<String, Long> getUniquePathCounts(final Collection<? extends Map> inputs) {
+        Map<String, Long> results = inputs.parallelStream().collect(HashMap::new, (counts, input) -> {
+            Set<String> paths = new HashSet<>();
+            collectPaths(input, paths, true, null);
+            for (String path : paths) {
+                counts.merge(path, 1L, Long::sum);
+            }
+        }, (counts, otherCounts) -> otherCounts.forEach((path, count) -> counts.merge(path, count, Long::sum)));
+        return new TreeMap<>(results);
+    }
+
+    private static void collectPaths(final Map input, final Set<String> results, final boolean unique, final PathSymbols symbols) {
         Map treeMap = MapSort.getSortedMap(input);
         MapPaths mapPaths = new MapPaths();
-        mapPaths.getPaths(treeMap, results, null, true);
-        return results;
+        mapPaths.getPaths(treeMap, results, new PathBuffer(symbols), false, unique);
     }
 
 
     /**
-     * @param source     Map to process
-     * @param paths      Paths that are already processed
-     * @param pathPrefix prefix of the current inner element
-     * @param unique     specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
+     * @param source Map to process
+     * @param paths  Paths that are already processed
+     * @param path   path of the current inner element, it is restored to the same path before returning
+     * @param nested true if the map is inside another element
+     * @param unique specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
      */
-    private void getPaths(final Map source, final Set<String> paths, final String pathPrefix, final boolean unique) {
-        String currentPrefix;
-        if (pathPrefix == null) {
-            currentPrefix = "";
-        } else {
-            currentPrefix = pathPrefix + ".";
-        }
+    private void getPaths(final Map source, final Set<String> paths, final PathBuffer path, final boolean nested, final boolean unique) {
+        int length = path.length();
         for (Object item : source.entrySet()) {
             Map.Entry entry = (Map.Entry) item;
+            path.appendKey(entry.getKey(), nested);
             if (entry.getValue() instanceof Map || entry.getValue() instanceof Set || entry.getValue() instanceof List) {
-                processNextElement(entry.getValue(), paths, currentPrefix + entry.getKey(), unique);
+                processNextElement(entry.getValue(), paths, path, unique);
             } else {
-                paths.add(currentPrefix + entry.getKey());
+                paths.add(path.toString());
             }
+            path.setLength(length);
         }
     }
 
     /**
-     * @param source     Map to process
-     * @param paths      Paths that are already processed
-     * @param pathPrefix prefix of the current inner element
-     * @param unique     specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
+     * @param source List to process
+     * @param paths  Paths that are already processed
+     * @param path   path of the current inner element, it is restored to the same path before returning
+     * @param unique specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
      */
-    private void processList(final List source, final Set<String> paths, final String pathPrefix, final boolean unique) {
-        String currentPrefix;
-        if (pathPrefix == null) {
-            currentPrefix = "";
-        } else {
-            currentPrefix = pathPrefix;
-        }
+    private void processList(final List source, final Set<String> paths, final PathBuffer path, final boolean unique) {
+        int length = path.length();
         int index = 0;
-        if (source instanceof List) {
-            for (Object currentListItem : source) {
-                if (unique) {
-                    processNextElement(currentListItem, paths, currentPrefix + "[]", true);
-                } else {
-                    processNextElement(currentListItem, paths, currentPrefix + "[" + index++ + "]", false);
-
-                }
+        for (Object currentListItem : source) {
+            if (unique) {
+                path.appendAnyIndex();
+            } else {
+                path.appendIndex(index++);
             }
+            processNextElement(currentListItem, paths, path, unique);
+            path.setLength(length);
         }
     }
 
     /**
-     * @param source     Map to process
-     * @param paths      Paths that are already processed
-     * @param pathPrefix prefix of the current inner element
-     * @param unique     specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
+     * @param source Map to process
+     * @param paths  Paths that are already processed
+     * @param path   path of the current inner element
+     * @param unique specifies if the path has to be unique or not, this will identify whether to aggregate the list items or not.
      */
-    private void processNextElement(final Object source, final Set<String> paths, final String pathPrefix, final boolean unique) {
+    private void processNextElement(final Object source, final Set<String> paths, final PathBuffer path, final boolean unique) {
         if (Map.class.isInstance(source)) {
-            getPaths(Map.class.cast(source), paths, pathPrefix, unique);
+            getPaths(Map.class.cast(source), paths, path, true, unique);
         } else if (source instanceof List) {
-            processList((List) source, paths, pathPrefix, unique);
+            processList((List) source, paths, path, unique);
         } else {
-            paths.add(pathPrefix);
+            paths.add(path.toString());
         }
     }
 
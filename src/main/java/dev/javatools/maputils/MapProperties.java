@@ -1,8 +1,17 @@
 package dev.javatools.maputils;
 
+import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -53,6 +62,8 @@ import java.util.TreeMap;
  *          primaryAddress.state=LA
  *          primaryAddress.street=6649 N Blue Gum St
  *          primaryAddress.zip=70116
+ *
+ *      {@link #toNested(Map)} builds the map back from the properties.
  * </pre>
  */
 public final class MapProperties {
@@ -65,73 +76,261 @@ public final class MapProperties {
      * @return Sorted set of all the properties in the Map
      */
     public static Map<String, Object> getProperties(Map source) {
+        return getProperties(source, null);
+    }
+
+    /**
+     * Same as {@link #getProperties(Map)}, the keys are taken from the symbols, so that documents with the same paths share the keys.
+     *
+     * @param source  Map to process and generate the list of all properties
+     * @param symbols table of the paths, null to create new keys
+     * @return Sorted set of all the properties in the Map
+     */
+    public static Map<String, Object> getProperties(Map source, PathSymbols symbols) {
+        long start = Metrics.start();
         Map results = new TreeMap<>();
         Map treeMap = MapSort.getSortedMap(source);
         MapProperties mapProperties = new MapProperties();
-        mapProperties.getProperties(treeMap, results, null);
+        mapProperties.getProperties(treeMap, results, new PathBuffer(symbols), false);
+        Metrics.stop(Operation.PROPERTIES, start, treeMap);
         return results;
     }
 
     /**
-     * @param source
-
-
+     * Same properties as {@link #getProperties(Map)}, in a {@link PropertyMap} that needs a fraction of the memory of a TreeMap.
+     * Use it for the properties that are kept in memory.
+     *
+     * @param source Map to process and generate the list of all properties
+     * @return Sorted immutable map of all the properties in the Map
      */
+    public static PropertyMap getCompactProperties(Map source) {
+        return getCompactProperties(source, null);
+    }
+
     /**
-     * @param source     Map to process and generate the list of all properties
-     * @param paths      Sorted set of all the properties in the Map processed till time
-     * @param pathPrefix path identified until this step
+     * Same as {@link #getCompactProperties(Map)}, the keys are taken from the symbols, so that documents with the same paths share the keys.
+     *
+     * @param source  Map to process and generate the list of all properties
+     * @param symbols table of the paths, null to create new keys
+     * @return Sorted immutable map of all the properties in the Map
      */
-    private void getProperties(Map source, Map paths, String pathPrefix) {
-        String currentPrefix;
-        if (pathPrefix == null) {
-            currentPrefix = "";
-        } else {
-            currentPrefix = pathPrefix + ".";
-        }
+    public static PropertyMap getCompactProperties(Map source, PathSymbols symbols) {
+        return PropertyMap.copyOf(getProperties(source, symbols));
+    }
 
+    /**
+     * @param source Map to process and generate the list of all properties
+     * @param paths  Sorted set of all the properties in the Map processed till time
+     * @param path   path identified until this step, it is restored to the same path before returning
+     * @param nested true if the map is inside another element
+     */
+    private void getProperties(Map source, Map paths, PathBuffer path, boolean nested) {
+        int length = path.length();
         for (Object item : source.entrySet()) {
             Map.Entry entry = (Map.Entry) item;
+            path.appendKey(entry.getKey(), nested);
             if (entry.getValue() instanceof Map || entry.getValue() instanceof Set || entry.getValue() instanceof List) {
-                processNextElement(entry.getValue(), paths, currentPrefix + entry.getKey());
+                processNextElement(entry.getValue(), paths, path);
             } else {
-                paths.put(currentPrefix + entry.getKey(), entry.getValue());
+                paths.put(path.toString(), entry.getValue());
             }
+            path.setLength(length);
         }
     }
 
     /**
-     * @param source     Map to process and generate the list of all properties
-     * @param results    Sorted set of all the properties in the Map processed till time
-     * @param pathPrefix path identified until this step
+     * @param source  Map to process and generate the list of all properties
+     * @param results Sorted set of all the properties in the Map processed till time
+     * @param path    path identified until this step
      */
-    private void processNextElement(final Object source, final Map results, final String pathPrefix) {
+    private void processNextElement(final Object source, final Map results, final PathBuffer path) {
         if (source instanceof Map) {
-            getProperties((Map) source, results, pathPrefix);
+            getProperties((Map) source, results, path, true);
         } else if (source instanceof List) {
-            processList((List) source, results, pathPrefix);
+            processList((List) source, results, path);
         } else {
-            results.put(pathPrefix, source);
+            results.put(path.toString(), source);
         }
     }
 
     /**
-     * @param source     Map to process and generate the list of all properties
-     * @param paths      Sorted set of all the properties in the Map processed till time
-     * @param pathPrefix path identified until this step
+     * @param source Map to process and generate the list of all properties
+     * @param paths  Sorted set of all the properties in the Map processed till time
+     * @param path   path identified until this step, it is restored to the same path before returning
      */
-    private void processList(final List source, final Map paths, final String pathPrefix) {
-        String currentPrefix;
-        if (pathPrefix == null) {
-            currentPrefix = "";
-        } else {
-            currentPrefix = pathPrefix;
-        }
+    private void processList(final List source, final Map paths, final PathBuffer path) {
+        int length = path.length();
         int index = 0;
-        if (source instanceof List) {
-            for (Object currentListItem : (List) source) {
-                processNextElement(currentListItem, paths, currentPrefix + "[" + index++ + "]");
+        for (Object currentListItem : source) {
+            path.appendIndex(index++);
+            processNextElement(currentListItem, paths, path);
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * Build the nested map from the properties, this is the reverse of {@link #getProperties(Map)}.
+     * <pre>
+     *     The properties are processed in the order of their keys, the maps and lists of the previous key
+     *     are reused for the elements that the next key shares with it, so every map and list is looked up once.
+     *          friends[0].age=22                   - friends, friends[0]
+     *          friends[0].name=Josephine Darakjy   - reuses friends[0]
+     *     Lists are ArrayLists of the size of their largest index, that is found by a first pass over the keys,
+     *     the indexes without a value are null.
+     * </pre>
+     *
+     * @param properties property paths and their values
+     * @return nested map, with the keys in the order of the properties
+     */
+    public static Map toNested(final Map<String, Object> properties) {
+        if (null == properties) {
+            throw new MapUtilsException("Not a valid input, properties are mandatory.");
+        }
+        String[] keys = properties.keySet().toArray(new String[0]);
+        if (!(properties instanceof SortedMap)) {
+            Arrays.sort(keys);
+        }
+        Map<String, Integer> listSizes = listSizes(keys);
+        Map root = new LinkedHashMap();
+        List<Object> previousTokens = new ArrayList<>();
+        List<Object> containers = new ArrayList<>();
+        List<Object> tokens = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (String key : keys) {
+            tokenize(key, tokens, positions);
+            int shared = 0;
+            while (shared < tokens.size() - 1 && shared < previousTokens.size() - 1
+                    && tokens.get(shared).equals(previousTokens.get(shared))) {
+                shared++;
+            }
+            while (containers.size() > shared + 1) {
+                containers.remove(containers.size() - 1);
             }
+            if (containers.isEmpty()) {
+                containers.add(root);
+            }
+            Object container = containers.get(shared);
+            for (int i = shared; i < tokens.size() - 1; i++) {
+                container = child(key, container, tokens.get(i), tokens.get(i + 1), listSizes, positions.get(i + 1));
+                containers.add(container);
+            }
+            put(key, container, tokens.get(tokens.size() - 1), properties.get(key));
+            List<Object> swap = previousTokens;
+            previousTokens = tokens;
+            tokens = swap;
+        }
+        return root;
+    }
+
+    /**
+     * The keys are sorted as Strings, so friends[10] comes before friends[2], the size of each list is found before the lists are created.
+     *
+     * @return size of each list, by the path of the list, "friends" for friends[0].name
+     */
+    private static Map<String, Integer> listSizes(final String[] keys) {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (String key : keys) {
+            for (int open = key.indexOf('['); open > 0; open = key.indexOf('[', open + 1)) {
+                int close = key.indexOf(']', open);
+                if (close < 0) {
+                    break;
+                }
+                try {
+                    sizes.merge(key.substring(0, open), Integer.parseInt(key.substring(open + 1, close)) + 1, Math::max);
+                } catch (NumberFormatException numberFormatException) {
+                    // the key is rejected with its error when it is tokenized
+                }
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Splits the key into field names (String) and list indexes (Integer), "friends[0].name" is friends, 0, name.
+     * The position of the '[' of each list index is added to the positions, -1 for the field names.
+     */
+    private static void tokenize(final String key, final List<Object> tokens, final List<Integer> positions) {
+        if (key.isEmpty() || key.charAt(0) == '[') {
+            throw new MapUtilsException("Not a valid property, it should start with a field name: " + key);
+        }
+        tokens.clear();
+        positions.clear();
+        int start = 0;
+        boolean afterIndex = false;
+        for (int i = 0; i < key.length(); i++) {
+            char current = key.charAt(i);
+            if (current == '.') {
+                if (!afterIndex) {
+                    tokens.add(key.substring(start, i));
+                    positions.add(-1);
+                }
+                start = i + 1;
+                afterIndex = false;
+            } else if (current == '[') {
+                int close = key.indexOf(']', i);
+                if (close < 0) {
+                    throw new MapUtilsException("Not a valid property: " + key);
+                }
+                if (!afterIndex) {
+                    tokens.add(key.substring(start, i));
+                    positions.add(-1);
+                }
+                try {
+                    tokens.add(Integer.parseInt(key.substring(i + 1, close)));
+                    positions.add(i);
+                } catch (NumberFormatException numberFormatException) {
+                    throw new MapUtilsException("Not a valid list index in the property: " + key);
+                }
+                i = close;
+                start = close + 1;
+                afterIndex = true;
+            }
+        }
+        if (!afterIndex) {
+            tokens.add(key.substring(start));
+            positions.add(-1);
+        }
+    }
+
+    /**
+     * @return the map or list at the token in the container, it is created if it does not exist yet
+     */
+    private static Object child(final String key, final Object container, final Object token, final Object nextToken,
+                                final Map<String, Integer> listSizes, final int nextPosition) {
+        Object child = get(container, token);
+        if (null == child) {
+            child = nextToken instanceof Integer ? new ArrayList<>(Math.max(0, listSizes.get(key.substring(0, nextPosition)))) : new LinkedHashMap<>();
+            put(key, container, token, child);
+        } else if (nextToken instanceof Integer ? !(child instanceof List) : !(child instanceof Map)) {
+            throw new MapUtilsException("Not a valid property: " + key + ", " + token + " has a value and can not have "
+                    + (nextToken instanceof Integer ? "list elements." : "fields."));
+        }
+        return child;
+    }
+
+    private static Object get(final Object container, final Object token) {
+        if (token instanceof Integer) {
+            List list = (List) container;
+            return (Integer) token < list.size() ? list.get((Integer) token) : null;
+        }
+        return ((Map) container).get(token);
+    }
+
+    private static void put(final String key, final Object container, final Object token, final Object value) {
+        if (token instanceof Integer) {
+            int index = (Integer) token;
+            ArrayList list = (ArrayList) container;
+            if (index >= list.size()) {
+                list.ensureCapacity(index + 1);
+                while (list.size() <= index) {
+                    list.add(null);
+                }
+            }
+            list.set(index, value);
+        } else if (container instanceof Map) {
+            ((Map) container).put(token, value);
+        } else {
+            throw new MapUtilsException("Not a valid property: " + key);
         }
     }
 
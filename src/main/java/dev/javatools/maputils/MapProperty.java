@@ -1,8 +1,10 @@
 package dev.javatools.maputils;
 
+import dev.javatools.maputils.helpers.BoundedCache;
 import dev.javatools.maputils.helpers.MapUtilsException;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Path format examples
@@ -26,15 +28,10 @@ import java.util.*;
  */
 public class MapProperty {
 
-    private static final String PATH_DELIMITER_REGEX = "[.]";
-    private static final String LIST_MATCH = ".*\\[.*\\]";
-    private static final String FILTER_MATCH = "\\{.*\\}";
-    private static final String NUMBER_MATCH = "[0-9]+";
-    private static final String OPEN_CURLY = "{";
-    private static final String CLOSE_CURLY = "}";
-    private static final String OPEN_SQUARE = "[";
-    private static final String CLOSE_SQUARE = "]";
-    private static final String EQUAL = "=";
+    private static final int PATH_CACHE_SIZE = 1024;
+    private static final BoundedCache<String, CompiledPath> PATH_CACHE = new BoundedCache<>(PATH_CACHE_SIZE, CompiledPath::compile);
+    private static final int PROJECTION_CACHE_SIZE = 256;
+    private static final BoundedCache<List<String>, Projection> PROJECTION_CACHE = new BoundedCache<>(PROJECTION_CACHE_SIZE, Projection::compile);
 
     /**
      * Currently it has the basic implementation. It can set a value at a specific map path
@@ -44,7 +41,7 @@ public class MapProperty {
      *  name.friends[].address.city
      *  The above path will get the first friend's city address.
      * </pre>
-     * TODO: Need to handle objects inside the list, similar to the "set" method implementation.
+     * The path is parsed only once and kept in a bounded cache, repeated lookups with the same path do not parse it again.
      *
      * @param fieldPath path to the field in Map.
      * @param sourceMap Source map that needs to be searched
@@ -52,114 +49,71 @@ public class MapProperty {
      */
     public static Object get(final String fieldPath, final Map sourceMap) {
         if (null != fieldPath) {
-            String[] sourcePathArray = fieldPath.split(PATH_DELIMITER_REGEX);
-            MapProperty mapProperty = new MapProperty();
-            List<String> targetList = Arrays.asList(sourcePathArray);
-            Queue<String> paths = new LinkedList<>();
-            paths.addAll(targetList);
-            return mapProperty.get(paths, sourceMap);
+            return PATH_CACHE.get(fieldPath).get(sourceMap);
         } else {
             return null;
         }
     }
 
-    private Object get(final Queue<String> pathQueue, final Map sourceMap) {
-        Object currentValue = sourceMap;
-        while (!pathQueue.isEmpty() && null != currentValue) {
-            String currentElement = pathQueue.remove();
-            if (currentElement.matches(LIST_MATCH)) {
-                currentValue = processList(currentElement, (Map) currentValue);
-            } else {
-                currentValue = ((Map) currentValue).get(currentElement);
-            }
-        }
-        return currentValue;
-    }
-
-    private Object processList(final String currentElement, final Map sourceMap) {
-        String filterCriteria = currentElement.substring(currentElement.lastIndexOf(OPEN_SQUARE) + 1, currentElement.lastIndexOf(CLOSE_SQUARE));
-        String currentKey = currentElement.substring(0, currentElement.indexOf("["));
-        if (null == sourceMap.get(currentKey)) {
-            return null;
-        }
-        if (!(sourceMap.get(currentKey) instanceof List)) {
-            throw new MapUtilsException("Did not found list at property: " + currentElement);
-        }
-        Object listObject = sourceMap.get(currentKey);
-        List list = (List) listObject;
-        if (list.size() == 0) {
-            return null;
-        }
-        if (filterCriteria.matches(FILTER_MATCH)) {
-            List results = processFilterList(filterCriteria, list);
-            if (results.size() > 0) {
-                return results.get(0);
-            } else {
-                return null;
-            }
-        } else if (filterCriteria.matches(NUMBER_MATCH)) {
-            return getNumberedElementFromList(list, Integer.parseInt(filterCriteria));
-        } else {
-            if (filterCriteria.equals("")) {
-                return getFirstElementFromList(list);
-            } else {
-                throw new MapUtilsException("wrong filter criteria on list:" + currentElement);
-            }
+    /**
+     * Parse the path once, so that it can be used to get the value from many maps.
+     * <pre>
+     *  Example:
+     *  CompiledPath path = MapProperty.compile("friends[{name=Lenna Paprocki}].associatedAddresses[].city");
+     *  for (Map person : people) {
+     *      Object city = path.get(person);
+     *  }
+     * </pre>
+     *
+     * @param fieldPath path to the field in Map, MapUtilsException will be thrown if it is null.
+     * @return parsed path, the same instance is returned for the same path as long as it is in the cache.
+     */
+    public static CompiledPath compile(final String fieldPath) {
+        if (null == fieldPath) {
+            throw new MapUtilsException("Not a valid input, fieldPath is mandatory.");
         }
+        return PATH_CACHE.get(fieldPath);
     }
 
-    private Object getFirstElementFromList(List sourceList) {
-        return getNumberedElementFromList(sourceList, 0);
-    }
-
-    private Object getNumberedElementFromList(List sourceList, int itemPosition) {
-        if (sourceList.size() > itemPosition) {
-            return sourceList.get(itemPosition);
-        } else {
-            return null;
-        }
+    /**
+     * Get the values of many paths from the same map, the map is walked only once for all the paths.
+     * <pre>
+     *  Example:
+     *  Map values = MapProperty.project(person, List.of("name", "primaryAddress.city", "friends[{name=Art Venere}].age"));
+     *  {name=James Butt, primaryAddress.city=Irving, friends[{name=Art Venere}].age=28}
+     * </pre>
+     *
+     * @param sourceMap Source map that needs to be searched
+     * @param paths     paths to the fields in Map, MapUtilsException will be thrown if it is null or has a null path.
+     * @return the value of each path by path, in the same order as the paths, null for the paths that do not exist.
+     */
+    public static Map<String, Object> project(final Map sourceMap, final List<String> paths) {
+        return projection(paths).project(sourceMap);
     }
 
-    private List processFilterList(String filterCriteria, List<Map<String, Object>> sourceList) {
-        List matchedElements = new LinkedList();
-        Map<String, String> filters = getFilters(filterCriteria);
-        for (Map<String, Object> currentMap : sourceList) {
-            boolean match = true;
-            for (Map.Entry filterItem : filters.entrySet()) {
-                if (null != currentMap.get(filterItem.getKey())) {
-                    if (!currentMap.get(filterItem.getKey()).equals(filterItem.getValue())) {
-                        match = false;
-                        break;
-                    }
-                } else {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                matchedElements.add(currentMap);
-            }
+    /**
+     * Merge the paths once, so that they can be used to get the values from many maps.
+     * <pre>
+     *  Example:
+     *  Projection projection = MapProperty.projection(List.of("name", "primaryAddress.city"));
+     *  for (Map event : events) {
+     *      Object[] row = projection.values(event);
+     *  }
+     * </pre>
+     *
+     * @param paths paths to the fields in Map, MapUtilsException will be thrown if it is null or has a null path.
+     * @return merged paths, the same instance is returned for the same paths as long as it is in the cache.
+     */
+    public static Projection projection(final List<String> paths) {
+        if (null == paths) {
+            throw new MapUtilsException("Not a valid input, paths are mandatory.");
         }
-        return matchedElements;
-    }
-
-    private Map<String, String> getFilters(String originalFilters) {
-        Map<String, String> filters = new HashMap<>();
-        String[] filterArray = originalFilters.split(CLOSE_CURLY);
-        for (String individualFilter : filterArray) {
-            if (individualFilter.trim().indexOf(OPEN_CURLY) >= 0) {
-                individualFilter = individualFilter.substring(individualFilter.indexOf(OPEN_CURLY) + 1);
-                String[] keyValue = individualFilter.split(EQUAL);
-                if (keyValue.length != 2) {
-                    throw new MapUtilsException("Not a valid filter: " + individualFilter);
-                } else {
-                    filters.put(keyValue[0], keyValue[1]);
-                }
-            } else {
-                throw new MapUtilsException("Not a valid filter: " + individualFilter);
+        for (String path : paths) {
+            if (null == path) {
+                throw new MapUtilsException("Not a valid input, paths can not have a null path.");
             }
         }
-        return filters;
+        return PROJECTION_CACHE.get(List.copyOf(paths));
     }
 
 }
@@ -1,12 +1,12 @@
 package dev.javatools.maputils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import dev.javatools.maputils.helpers.Constants;
-import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,6 +16,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 
@@ -45,12 +49,17 @@ import java.util.stream.Collectors;
  * listKey.put("members[]", "name");
  * If you need the sort the above Map based on the member age. You need to pass
  * listKey.put("members[]", "age");
+ * If you need the sort the above Map based on the member age and then the name. You need to pass
+ * listKey.put("members[]", "age, name");
+ * Numbers are sorted on their value and Strings alphabetically, members without the field come first.
  */
 public final class MapSort {
 
     private static final String EMPTY_STRING = "";
     private static final String PERIOD = ".";
     private static final String LIST_SYMBOL = "[]";
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int PARALLEL_CHUNK_WEIGHT = 1024;
 
     private Logger logger = LoggerFactory.getLogger(MapSort.class);
 
@@ -78,87 +87,165 @@ public final class MapSort {
      * @return Map that is sorted on the keys
      */
     public static Map getSortedMap(final Map input, final Map<String, String> listKeys) {
-        try {
-            if (null == input) {
-                return new HashMap();
-            }
-            Map<String, String> listKeysInternal = new HashMap<>();
-            if (null != listKeys) {
-                listKeysInternal.putAll(listKeys);
-            }
-            String jsonString = Constants.jsonMapper.writeValueAsString(input);
-            Map sanitizedMap = Constants.jsonMapper.readValue(jsonString, Map.class);
-            return getSortedMap(sanitizedMap, listKeysInternal, null);
-        } catch (JsonProcessingException jsonProcessingException) {
-            throw new MapUtilsException(jsonProcessingException);
+        return getSortedMap(input, listKeys, false);
+    }
+
+    /**
+     * Same as {@link #getSortedMap(Map, Map)}, with an option to sort large maps in the common fork join pool.
+     * <pre>
+     *     In parallel mode, the fields of wide maps, the elements of large lists and sibling fields with large values
+     *     are sorted at the same time, small maps and lists are sorted on the current thread.
+     *     The sorted values are added to the result in the same order as the sequential sort, so the result is exactly the same.
+     * </pre>
+     *
+     * @param input    Map that needs to be sorted
+     * @param listKeys List of field names that needs to be sorted, see the class documentation for more details
+     * @param parallel true to sort large maps with multiple threads
+     * @return Map that is sorted on the keys
+     */
+    public static Map getSortedMap(final Map input, final Map<String, String> listKeys, final boolean parallel) {
+        if (null == input) {
+            return new HashMap();
+        }
+        long start = Metrics.start();
+        Map<String, String> listKeysInternal = new HashMap<>();
+        if (null != listKeys) {
+            listKeysInternal.putAll(listKeys);
         }
+        Map result = getSortedMap(input, listKeysInternal, null, parallel);
+        Metrics.stop(Operation.SORT, start, result);
+        return result;
     }
 
     /**
+     * The values are converted the same way as writing the map into json and reading it back,
+     * while the sorted map is built, so there is no separate pass over the input for that.
+     * <pre>
+     *     1. null values are removed from the maps
+     *     2. numbers are converted into Integer/Long/BigInteger or BigDecimal
+     *     3. custom objects, arrays, sets and maps with keys that are not String are converted with the json mapper
+     * </pre>
+     *
      * @param input    Map that needs to be sorted
      * @param listKeys List of field names that needs to be sorted, see the class documentation for more details
      * @param prefix
+     * @param parallel
      * @return Map that is sorted on the keys
      */
-    private static Map getSortedMap(final Map input, final Map<String, String> listKeys, final String prefix) {
+    private static Map getSortedMap(final Map input, final Map<String, String> listKeys, final String prefix, final boolean parallel) {
+        if (!MapConverter.hasStringKeys(input)) {
+            return getSortedMap((Map) MapConverter.toTree(input), listKeys, prefix, parallel);
+        }
         TreeMap treeMap = new TreeMap();
         MapSort mapSort = new MapSort();
+        Object[] keys = new Object[input.size()];
+        Object[] values = new Object[keys.length];
+        int count = 0;
         for (Object item : input.entrySet()) {
             Map.Entry entry = (Map.Entry) item;
-            if (entry.getValue() instanceof Map) {
-                mapSort.processMap(entry, treeMap, listKeys, prefix);
-            } else if (entry.getValue() instanceof List) {
-                mapSort.processList(entry, treeMap, listKeys, prefix);
-            } else {
-                treeMap.put(entry.getKey(), entry.getValue());
+            keys[count] = entry.getKey();
+            values[count++] = MapConverter.normalizeValue(entry.getValue());
+        }
+        if (parallel) {
+            long[] weights = weights(values);
+            if (weights[count] >= PARALLEL_THRESHOLD) {
+                run(new SortTask(0, count, weights, i -> values[i] = mapSort.sortField(keys[i], values[i], listKeys, prefix, true)));
+                for (int i = 0; i < count; i++) {
+                    if (null != values[i]) {
+                        treeMap.put(keys[i], values[i]);
+                    }
+                }
+                return treeMap;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Object value = mapSort.sortField(keys[i], values[i], listKeys, prefix, parallel);
+            if (null != value) {
+                treeMap.put(keys[i], value);
             }
         }
         return treeMap;
     }
 
+    /**
+     * @param key
+     * @param value    normalized value of the field
+     * @param listKeys
+     * @param prefix
+     * @param parallel
+     * @return sorted value of the field
+     */
+    private Object sortField(final Object key, final Object value, final Map<String, String> listKeys, final String prefix,
+                             final boolean parallel) {
+        if (value instanceof Map) {
+            return processMap(key, (Map) value, listKeys, prefix, parallel);
+        } else if (value instanceof List) {
+            return processList(key, (List) value, listKeys, prefix, parallel);
+        }
+        return value;
+    }
+
     /**
      * Process map inside map
      *
-     * @param entry
-     * @param treeMap
+     * @param key
+     * @param value
      * @param listKeys
      * @param prefix
+     * @param parallel
+     * @return sorted map
      */
-    private void processMap(final Map.Entry entry, final TreeMap treeMap, final Map<String, String> listKeys,
-                            final String prefix) {
+    private Map processMap(final Object key, final Map value, final Map<String, String> listKeys, final String prefix,
+                           final boolean parallel) {
         String updatedPrefix = (null == prefix) ? EMPTY_STRING : prefix + PERIOD;
-        Map innerMap = getSortedMap((Map) entry.getValue(), listKeys, updatedPrefix + entry.getKey());
-        treeMap.put(entry.getKey(), innerMap);
+        return getSortedMap(value, listKeys, updatedPrefix + key, parallel);
     }
 
     /**
      * Process List or Set inside Map.
      *
-     * @param entry
-     * @param treeMap
+     * @param key
+     * @param value
      * @param listKeys
      * @param prefix
+     * @param parallel
+     * @return sorted list
      */
-    private void processList(final Map.Entry entry, final Map treeMap, final Map<String, String> listKeys, final String prefix) {
-        String updatedPrefix = (null == prefix) ? entry.getKey() + LIST_SYMBOL : prefix + PERIOD + entry.getKey() + LIST_SYMBOL;
-        List sortedSet;
-        sortedSet = getSortedList(((List) entry.getValue()), listKeys, updatedPrefix);
-        treeMap.put(entry.getKey(), sortedSet);
+    private List processList(final Object key, final List value, final Map<String, String> listKeys, final String prefix,
+                             final boolean parallel) {
+        String updatedPrefix = (null == prefix) ? key + LIST_SYMBOL : prefix + PERIOD + key + LIST_SYMBOL;
+        return getSortedList(value, listKeys, updatedPrefix, parallel);
     }
 
     /**
      * Process List or Set inside List or Set
      *
      * @param entry
-     * @param treeSet
      * @param listKeys
      * @param prefix
+     * @param parallel
+     * @return sorted list
      */
-    private void processList(final Object entry, final Set<Object> treeSet, final Map<String, String> listKeys, final String prefix) {
+    private List processList(final List entry, final Map<String, String> listKeys, final String prefix, final boolean parallel) {
         String updatedPrefix = (null == prefix) ? LIST_SYMBOL : prefix + LIST_SYMBOL;
-        List sortedSet;
-        sortedSet = getSortedList(((List) entry), listKeys, updatedPrefix);
-        treeSet.add(sortedSet);
+        return getSortedList(entry, listKeys, updatedPrefix, parallel);
+    }
+
+    /**
+     * @param item     normalized element of a list
+     * @param listKeys
+     * @param prefix
+     * @param parallel
+     * @return sorted element
+     */
+    private Object sortElement(final Object item, final Map<String, String> listKeys, final String prefix, final boolean parallel) {
+        logger.debug(item.getClass().getName());
+        if (item instanceof Map) {
+            return getSortedMap((Map) item, listKeys, prefix, parallel);
+        } else if (item instanceof List) {
+            return processList((List) item, listKeys, prefix, parallel);
+        }
+        return item;
     }
 
     /**
@@ -167,70 +254,239 @@ public final class MapSort {
      * @param input
      * @param listKeys
      * @param prefix
+     * @param parallel
      * @return
      */
-    private List getSortedList(final List input, final Map<String, String> listKeys, final String prefix) {
-        Set<Object> response = null;
-        for (Object currentItem : input) {
-            logger.debug(currentItem.getClass().getName());
-            if (currentItem instanceof Map) {
-                if (response == null) {
-                    response = new HashSet();
+    private List getSortedList(final List input, final Map<String, String> listKeys, final String prefix, final boolean parallel) {
+        Object[] items = new Object[input.size()];
+        int count = 0;
+        for (Object item : input) {
+            items[count++] = MapConverter.normalizeValue(item);
+        }
+        if (parallel) {
+            long[] weights = weights(items);
+            if (weights[count] >= PARALLEL_THRESHOLD) {
+                run(new SortTask(0, count, weights, i -> items[i] = sortElement(items[i], listKeys, prefix, true)));
+            } else {
+                for (int i = 0; i < count; i++) {
+                    items[i] = sortElement(items[i], listKeys, prefix, true);
                 }
-                response.add(getSortedMap((Map) currentItem, listKeys, prefix));
-            } else if (currentItem instanceof List) {
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                items[i] = sortElement(items[i], listKeys, prefix, false);
+            }
+        }
+        Set<Object> response = null;
+        for (int i = 0; i < count; i++) {
+            Object currentItem = items[i];
+            if (currentItem instanceof Map || currentItem instanceof List) {
                 if (response == null) {
                     response = new HashSet();
                 }
-                processList(currentItem, response, listKeys, prefix);
-            } else {
-                if (response == null) {
-                    response = new TreeSet();
-                }
-                response.add(currentItem);
+            } else if (response == null) {
+                response = new TreeSet();
             }
+            response.add(currentItem);
         }
         if (null == response) {
             response = new TreeSet();
         }
         if (listKeys.containsKey(prefix) && (response instanceof HashSet || response instanceof TreeSet)) {
-            List<Map> finalResponse = new LinkedList();
-            response.stream().forEach(item -> finalResponse.add((Map) item));
             MapComparator mapComparator = new MapComparator(listKeys.get(prefix));
-            Collections.sort(finalResponse, mapComparator);
-            return finalResponse;
+            return mapComparator.sort(response, parallel && response.size() >= PARALLEL_THRESHOLD);
         } else {
             return response.stream().collect(Collectors.toList());
         }
     }
 
+    /**
+     * @param values normalized values of a map or a list
+     * @return running total of the number of values, where a map or a list counts as one plus its size
+     */
+    private static long[] weights(final Object[] values) {
+        long[] weights = new long[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            int size = value instanceof Map ? ((Map) value).size() : value instanceof List ? ((List) value).size() : 0;
+            weights[i + 1] = weights[i] + 1 + size;
+        }
+        return weights;
+    }
+
+    private static void run(final SortTask task) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Sorts a range of the values of a map or a list, the range is split until the values in each part are small enough.
+     */
+    private static final class SortTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final long[] weights;
+        private final IntConsumer sorter;
+
+        SortTask(final int from, final int to, final long[] weights, final IntConsumer sorter) {
+            this.from = from;
+            this.to = to;
+            this.weights = weights;
+            this.sorter = sorter;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && weights[to] - weights[from] > PARALLEL_CHUNK_WEIGHT) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SortTask(from, middle, weights, sorter), new SortTask(middle, to, weights, sorter));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                sorter.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Compares the maps on the values of one or more fields, the field names are separated by comma, for example "lastName, firstName".
+     * <pre>
+     *     Missing values come first, then numbers by their value, then Strings alphabetically, then the other values by their text.
+     *     When the first field is the same, the next field is compared.
+     * </pre>
+     */
     static class MapComparator implements Comparator<Map> {
 
-        String key;
+        private static final char KEY_SEPARATOR = ',';
+
+        private final CompiledPath[] paths;
 
         public MapComparator(final String localKey) {
-            key = localKey;
+            List<String> keys = null == localKey ? new LinkedList<>() : splitKeys(localKey);
+            paths = new CompiledPath[keys.size()];
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = MapProperty.compile(keys.get(i));
+            }
         }
 
         @Override
-        public int compare(Map firstMap, Map secondMap) {
+        public int compare(final Map firstMap, final Map secondMap) {
+            return compareKeys(sortKey(firstMap), sortKey(secondMap));
+        }
 
-            if ((firstMap == null || null == MapProperty.get(key, firstMap)) && (secondMap == null || null == MapProperty.get(key, secondMap))) {
-                return 0;
+        /**
+         * Reads the fields of each map once, sorts on them and returns the maps in that order.
+         *
+         * @param items    maps that need to be sorted
+         * @param parallel true to sort in the common fork join pool, the result is the same because the sort is stable
+         * @return sorted maps
+         */
+        List<Map> sort(final Collection<Object> items, final boolean parallel) {
+            SortEntry[] entries = new SortEntry[items.size()];
+            int count = 0;
+            for (Object item : items) {
+                Map map = (Map) item;
+                entries[count++] = new SortEntry(sortKey(map), map);
+            }
+            Comparator<SortEntry> comparator = (first, second) -> compareKeys(first.key, second.key);
+            if (parallel) {
+                Arrays.parallelSort(entries, comparator);
+            } else {
+                Arrays.sort(entries, comparator);
+            }
+            List<Map> sorted = new LinkedList<>();
+            for (SortEntry entry : entries) {
+                sorted.add(entry.map);
+            }
+            return sorted;
+        }
+
+        private Object[] sortKey(final Map map) {
+            Object[] key = new Object[paths.length];
+            if (null != map) {
+                for (int i = 0; i < paths.length; i++) {
+                    key[i] = paths[i].get(map);
+                }
+            }
+            return key;
+        }
+
+        private static int compareKeys(final Object[] first, final Object[] second) {
+            for (int i = 0; i < first.length; i++) {
+                int result = compareValues(first[i], second[i]);
+                if (result != 0) {
+                    return result;
+                }
             }
+            return 0;
+        }
 
-            if (firstMap == null || null == MapProperty.get(key, firstMap)) {
-                return -1;
+        private static int compareValues(final Object first, final Object second) {
+            int firstRank = rank(first);
+            int secondRank = rank(second);
+            if (firstRank != secondRank) {
+                return Integer.compare(firstRank, secondRank);
+            }
+            switch (firstRank) {
+                case 0:
+                    return 0;
+                case 1:
+                    return MapConverter.compareNumbers((Number) first, (Number) second);
+                case 2:
+                    return ((String) first).compareTo((String) second);
+                default:
+                    return first.toString().compareTo(second.toString());
             }
+        }
 
-            if (secondMap == null || null == MapProperty.get(key, secondMap)) {
+        private static int rank(final Object value) {
+            if (null == value) {
+                return 0;
+            } else if (value instanceof Number) {
                 return 1;
+            } else if (value instanceof String) {
+                return 2;
+            }
+            return 3;
+        }
+
+        /**
+         * Splits the keys on the commas that are not part of a filter in the path.
+         */
+        private static List<String> splitKeys(final String localKey) {
+            List<String> keys = new LinkedList<>();
+            int depth = 0;
+            int start = 0;
+            for (int i = 0; i < localKey.length(); i++) {
+                char current = localKey.charAt(i);
+                if (current == '[') {
+                    depth++;
+                } else if (current == ']' && depth > 0) {
+                    depth--;
+                } else if (current == KEY_SEPARATOR && depth == 0) {
+                    keys.add(localKey.substring(start, i).trim());
+                    start = i + 1;
+                }
             }
+            keys.add(localKey.substring(start).trim());
+            return keys;
+        }
 
-            return MapProperty.get(key, firstMap).toString().compareTo(MapProperty.get(key, secondMap).toString());
+        /**
+         * Map with the values of the fields it is sorted on.
+         */
+        private static final class SortEntry {
+            private final Object[] key;
+            private final Map map;
 
+            private SortEntry(final Object[] key, final Map map) {
+                this.key = key;
+                this.map = map;
+            }
         }
     }
 }
-
-
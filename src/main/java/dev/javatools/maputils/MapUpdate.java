@@ -1,14 +1,14 @@
 package dev.javatools.maputils;
 
 
+import dev.javatools.maputils.helpers.BoundedCache;
 import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 
 /**
  * You can add, update, delete any element in the map by specifying the path in the following format.
@@ -31,7 +31,10 @@ import java.util.Queue;
 public class MapUpdate {
 
 
-    private static final String PATH_DELIMITER_REGEX = "[.]";
+    private static final int PLAN_CACHE_SIZE = 1024;
+    private static final BoundedCache<String, UpdatePlan> PLAN_CACHE = new BoundedCache<>(PLAN_CACHE_SIZE, UpdatePlan::compile);
+    private static final int TREE_CACHE_SIZE = 256;
+    private static final BoundedCache<List<String>, UpdateTree> TREE_CACHE = new BoundedCache<>(TREE_CACHE_SIZE, UpdateTree::compile);
 
     /**
      * <pre>
@@ -52,6 +55,7 @@ public class MapUpdate {
      * Current implementation does not support Set or custom objects in the Map for this operation.
      * </pre>
      * <p>
+     * The path is parsed only once and kept in a bounded cache, use {@link #compile(String)} to hold on to the parsed path.
      *
      * @param mapPath   Path in the Map
      * @param sourceMap the map that needs to be updated
@@ -59,160 +63,122 @@ public class MapUpdate {
      */
     public static void set(final String mapPath, final Map sourceMap, final Object value) {
         if (null != mapPath && null != sourceMap) {
-            String[] sourcePathArray = mapPath.split(PATH_DELIMITER_REGEX);
-            List<String> targetList = Arrays.asList(sourcePathArray);
-            Queue<String> paths = new LinkedList<>();
-            paths.addAll(targetList);
-            MapUpdate mapUpdate = new MapUpdate();
-            mapUpdate.set(paths, sourceMap, value, null);
+            PLAN_CACHE.get(mapPath).set(sourceMap, value);
         } else {
             throw new MapUtilsException("Not a valid input, mapPath and sourceMap are mandatory fields.");
         }
     }
 
     /**
-     * @param pathQueue  if the destinationPath is null or empth String, MapUtilsException will be thrown.
-     * @param sourceMap  if the destinationMap is null then throw map utils exception
-     * @param fieldValue if the value is not, then the field specified in the destinationPath will be removed from the map (if there are no filters in the path).
+     * Same as {@link #set(String, Map, Object)}, for a map that many threads update at the same time without a common lock.
+     * <pre>
+     *  Example:
+     *  Map state = new ConcurrentHashMap();
+     *  // on any thread
+     *  MapUpdate.setConcurrent("sessions.s1.user", state, "James Butt");
+     *  MapUpdate.setConcurrent("events[]", state, event);
+     *
+     *  The maps and lists that are missing in the path are created as ConcurrentHashMaps and CopyOnWriteArrayLists,
+     *  a missing element is created with computeIfAbsent, so the threads that need it at the same time all use the same instance.
+     *  Adding to a list is a single step of the CopyOnWriteArrayList, the changes that need more steps (filling a list up to
+     *  a position, inserting a first element) lock only that list. Lists are copied on every change, so they suit
+     *  the lists that are read more often than they are changed.
+     *  The root and the maps and lists that already exist in the map are used as they are, they should be concurrent as well.
+     *  Null values can not be kept in concurrent maps, a null value removes the field, as in set.
+     * </pre>
+     *
+     * @param mapPath   Path in the Map
+     * @param sourceMap the map that needs to be updated, a ConcurrentMap
+     * @param value     the value that needs to be updated with in the path specified.
      */
-    private void set(final Queue<String> pathQueue, final Map sourceMap, final Object fieldValue, final String processPath) {
-        String originalKey = pathQueue.remove();
-        originalKey = originalKey.trim();
-        String newProcessPath = (null == processPath ? "" : processPath + ".") + originalKey;
-        // Only the following three scenatios handled at this time
-        // 1. map inside map
-        // 2. list inside map
-        // 3. map inside list
-        // List inside List, multi dimensional array is not yet supported.
-        if (!originalKey.matches(LIST_MATCH)) {
-            // Processing Map
-            if (pathQueue.size() > 0) {
-                // intermediate field
-                Object innerElement = sourceMap.get(originalKey);
-                if (null != innerElement && innerElement instanceof Map) {
-                    // if the map exists, process the next element in the path
-                    set(pathQueue, (Map) innerElement, fieldValue, newProcessPath);
-                } else if (null == innerElement) {
-                    Map newMap = new HashMap<>();
-                    sourceMap.put(originalKey, newMap);
-                    // if the object is not found, then create the object and continue to process the next element in path
-                    set(pathQueue, newMap, fieldValue, newProcessPath);
-                } else {
-                    // If the object type is not map, then this process is not supported at this time.
-                    throw new MapUtilsException(originalKey + " is not a Map. Its object type is " + innerElement.getClass().getName() + ". At this time only maps and lists are supported.");
-                }
-            } else {
-                // terminal field
-                if (fieldValue == null) {
-                    // if the field value is null, then we need to remove the element from the map.
-                    sourceMap.remove(originalKey);
-                } else {
-                    // update the field with the value provided
-                    sourceMap.put(originalKey, fieldValue);
-                }
-            }
+    public static void setConcurrent(final String mapPath, final Map sourceMap, final Object value) {
+        if (null != mapPath && null != sourceMap) {
+            PLAN_CACHE.get(mapPath).setConcurrent(sourceMap, value);
         } else {
-            // Processing List
-            String actualKey = originalKey.substring(0, originalKey.lastIndexOf(OPEN_SQUARE));
-            Object innerElement = sourceMap.get(actualKey);
-            String filterCriteria = originalKey.substring(originalKey.lastIndexOf(OPEN_SQUARE), originalKey.lastIndexOf(CLOSE_SQUARE) + 1);
-            if (null != innerElement) {
-                if (innerElement instanceof List) {
-                    set(pathQueue, (List) innerElement, fieldValue, filterCriteria, newProcessPath);
-                } else {
-                    throw new MapUtilsException(newProcessPath + " is not a list. Its object type is " + innerElement.getClass().getName());
-                }
-            } else {
-                innerElement = new LinkedList<>();
-                sourceMap.put(actualKey, innerElement);
-                set(pathQueue, (List) innerElement, fieldValue, filterCriteria, newProcessPath);
-            }
+            throw new MapUtilsException("Not a valid input, mapPath and sourceMap are mandatory fields.");
         }
     }
 
-    private static final String LIST_MATCH = ".*\\[.*\\]";
-    private static final String FILTER_MATCH = "\\{.*\\}";
-    private static final String NUMBER_MATCH = "[0-9]+";
-    private static final String OPEN_CURLY = "{";
-    private static final String CLOSE_CURLY = "}";
-    private static final String OPEN_SQUARE = "[";
-    private static final String CLOSE_SQUARE = "]";
-    private static final String EQUAL = "=";
-
+    /**
+     * Parse the path once, so that it can be used to set the value on many maps.
+     * <pre>
+     *  Example:
+     *  UpdatePlan plan = MapUpdate.compile("friends[{name=Art Venere}].primaryAddress.street");
+     *  for (Map person : people) {
+     *      plan.set(person, "228 Runamuck Pl #2808");
+     *  }
+     * </pre>
+     *
+     * @param mapPath Path in the Map, MapUtilsException will be thrown if it is null.
+     * @return parsed path, the same instance is returned for the same path as long as it is in the cache.
+     */
+    public static UpdatePlan compile(final String mapPath) {
+        if (null == mapPath) {
+            throw new MapUtilsException("Not a valid input, mapPath is mandatory.");
+        }
+        return PLAN_CACHE.get(mapPath);
+    }
 
     /**
-     * @param pathQueue   - elements that are still need to be processed in the path queue
-     * @param sourceList  - list of input elements used to process the path
-     * @param fieldValue  - value of the field that needs to be updated
-     * @param parameters  - list of parameters that are used to filter the map to update the right element
-     * @param processPath - the path that is already navigated to process this element
+     * Set many paths on the same map, the paths are merged on their common prefixes so the map is walked only once.
+     * The result is the same as calling {@link #set(String, Map, Object)} for each update in the iteration order of the updates,
+     * use a LinkedHashMap when the order matters, for example to add elements to a list.
+     * <pre>
+     *  Example:
+     *  Map updates = new LinkedHashMap();
+     *  updates.put("primaryAddress.city", "Irving");
+     *  updates.put("primaryAddress.zip", "75063");
+     *  updates.put("friends[{name=Art Venere}].age", 30);
+     *  MapUpdate.setAll(person, updates);
+     * </pre>
+     *
+     * @param sourceMap the map that needs to be updated
+     * @param updates   value of each path, null values remove the field.
      */
-    private void set(final Queue<String> pathQueue, final List sourceList, final Object fieldValue, final String parameters, final String processPath) {
-        // handle multi dimension array with object parameters
-        String innerParameters = parameters.substring(1, parameters.length() - 1);
-        if (innerParameters.matches(FILTER_MATCH)) {
-            String[] individualparameters = innerParameters.trim().split(CLOSE_CURLY);
-            Map<String, String> filterCriteria = new HashMap<>();
-            for (String processCurrentParameter : individualparameters) {
-                processCurrentParameter = processCurrentParameter.substring(processCurrentParameter.indexOf(OPEN_CURLY) + 1);
-                String[] keyValue = processCurrentParameter.split(EQUAL);
-                filterCriteria.put(keyValue[0].trim(), keyValue[1].trim());
-            }
-            for (Object currentElementObject : sourceList) {
-                Map currentListElement = (Map) currentElementObject;
-                boolean match = true;
-                for (Map.Entry<String, String> currentFilter : filterCriteria.entrySet()) {
-                    if (!currentListElement.containsKey(currentFilter.getKey()) || !currentListElement.get(currentFilter.getKey()).toString().equals(currentFilter.getValue())) {
-                        match = false;
-                    }
-                }
-                if (match) {
-                    if (pathQueue.size() == 0 && null == fieldValue) {
-                        // TODO: Remove the element from list, tricky process.
-                        // This is the scenario, where we found the element in the path, and we have to remove this element as the value of this element is null.
-                    } else if (pathQueue.size() == 0) {
-                        throw new MapUtilsException(processPath + ": Found the element in this path, but to assign the value, we also need a key.");
-                    } else {
-                        set(pathQueue, currentListElement, fieldValue, processPath);
-                    }
-                }
-            }
-        } else if (innerParameters.matches(NUMBER_MATCH)) {
-            int listLocation = Integer.parseInt(innerParameters);
-            if (pathQueue.size() > 0) {
-                if (sourceList.size() > listLocation && null != sourceList.get(listLocation)) {
-                    set(pathQueue, (Map) sourceList.get(listLocation), fieldValue, processPath);
-                } else {
-                    if (sourceList.size() <= listLocation) {
-                        for (int i = sourceList.size() + 1; i <= listLocation + 1; i++) {
-                            sourceList.add(new HashMap());
-                        }
-                    }
-                    set(pathQueue, (Map) sourceList.get(listLocation), fieldValue, processPath);
-                }
-            } else {
-                // TODO: Hanlde multi dimensional array
-                sourceList.add(fieldValue);
-            }
-        } else {
-            if (pathQueue.size() > 0) {
-                if (sourceList.size() > 0 && null != sourceList.get(0)) {
-                    set(pathQueue, (Map) sourceList.get(0), fieldValue, processPath);
-                } else {
-                    sourceList.add(0, new HashMap<>());
-                    set(pathQueue, (Map) sourceList.get(0), fieldValue, processPath);
-                }
-            } else {
-                // TODO: Hanlde multi dimensional array
-                if (fieldValue != null) {
-                    sourceList.add(fieldValue);
-                } else {
-                    // TODO: handle null on an open ended list
-                }
+    public static void setAll(final Map sourceMap, final Map<String, Object> updates) {
+        if (null == sourceMap || null == updates) {
+            throw new MapUtilsException("Not a valid input, sourceMap and updates are mandatory fields.");
+        }
+        long start = Metrics.start();
+        List<String> paths = new ArrayList<>(updates.size());
+        Object[] values = new Object[updates.size()];
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            if (null == update.getKey()) {
+                throw new MapUtilsException("Not a valid input, mapPath is mandatory.");
             }
+            values[paths.size()] = update.getValue();
+            paths.add(update.getKey());
         }
+        TREE_CACHE.get(paths).apply(sourceMap, values);
+        Metrics.stop(Operation.UPDATE, start, null);
+    }
 
+    /**
+     * Same as {@link #set(String, Map, Object)}, but the map is not changed, a new version of the map is returned.
+     * The new version shares all the maps and lists that are not on the path with the previous version,
+     * so an update copies only the elements on its path instead of the whole map.
+     * <pre>
+     *  Example:
+     *  PersistentMap version1 = PersistentMap.copyOf(config);
+     *  PersistentMap version2 = MapUpdate.with("database.pool.size", version1, 20);
+     *  PersistentMap version3 = MapUpdate.with("servers[{name=east}].enabled", version2, false);
+     * </pre>
+     * A map that is not a {@link PersistentMap} is copied into one first, keep the returned versions to avoid the copy.
+     *
+     * @param mapPath   Path in the Map
+     * @param sourceMap the map that the new version is based on, it is not changed
+     * @param value     the value that needs to be set in the path specified, null values remove the field.
+     *                  Maps and lists are copied, changing them afterwards does not change the new version.
+     * @return new version of the map
+     */
+    public static PersistentMap with(final String mapPath, final Map sourceMap, final Object value) {
+        if (null == mapPath || null == sourceMap) {
+            throw new MapUtilsException("Not a valid input, mapPath and sourceMap are mandatory fields.");
+        }
+        long start = Metrics.start();
+        PersistentMap result = PersistentUpdate.with(mapPath, sourceMap, value);
+        Metrics.stop(Operation.UPDATE, start, null);
+        return result;
     }
 
 }
-
@@ -0,0 +1,187 @@
+package dev.javatools.maputils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import dev.javatools.maputils.helpers.Constants;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads the maps of a range of a newline delimited json file, one json object per line.
+ * <pre>
+ *     The range is read from memory mapped windows of the file by the json parser, the content is never copied into a String.
+ *     The range is split in half at the next line break until the parts are smaller than MIN_SPLIT_SIZE,
+ *     so a parallel stream reads the parts of the file on all the cores.
+ *          [0 ............................................................ size)
+ *          [0 ...................... line break)[next line ................ size)
+ * </pre>
+ */
+final class NdjsonSpliterator implements Spliterator<Map> {
+
+    static final long MIN_SPLIT_SIZE = 1024 * 1024;
+    static final long WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final int SCAN_SIZE = 8 * 1024;
+    private static final byte LINE_BREAK = '\n';
+
+    private final FileChannel channel;
+    private final long windowSize;
+    private long start;
+    private final long end;
+    private MappingIterator<Map> iterator;
+
+    /**
+     * @param channel    file that is read, it is shared by all the parts and is not closed by this class
+     * @param start      position of the first line of the range
+     * @param end        position after the last line of the range
+     * @param windowSize maximum number of bytes that are mapped at the same time
+     */
+    NdjsonSpliterator(final FileChannel channel, final long start, final long end, final long windowSize) {
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Map> action) {
+        try {
+            if (null == iterator) {
+                JsonParser parser = Constants.jsonMapper.getFactory().createParser(new MappedInputStream(channel, start, end, windowSize));
+                iterator = Constants.jsonMapper.readValues(parser, Map.class);
+            }
+            while (iterator.hasNextValue()) {
+                Map value = iterator.nextValue();
+                // null lines do not have a map
+                if (null != value) {
+                    action.accept(value);
+                    return true;
+                }
+            }
+            iterator.close();
+            return false;
+        } catch (IOException | RuntimeException exception) {
+            throw exception instanceof MapUtilsException ? (MapUtilsException) exception : new MapUtilsException(exception);
+        }
+    }
+
+    @Override
+    public Spliterator<Map> trySplit() {
+        if (null != iterator || end - start < 2 * MIN_SPLIT_SIZE) {
+            return null;
+        }
+        long split = nextLine(start + (end - start) / 2);
+        if (split >= end) {
+            return null;
+        }
+        NdjsonSpliterator prefix = new NdjsonSpliterator(channel, start, split, windowSize);
+        start = split;
+        return prefix;
+    }
+
+    /**
+     * @param position position in the file
+     * @return position after the first line break at or after the position, end if there is no line break
+     */
+    private long nextLine(final long position) {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long current = position;
+        try {
+            while (current < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(SCAN_SIZE, end - current));
+                int read = channel.read(buffer, current);
+                if (read <= 0) {
+                    return end;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == LINE_BREAK) {
+                        return current + i + 1;
+                    }
+                }
+                current += read;
+            }
+            return end;
+        } catch (IOException ioException) {
+            throw new MapUtilsException(ioException);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - start;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Input stream over a range of the file, that maps one window of the file at a time.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private final long windowSize;
+        private long next;
+        private MappedByteBuffer window;
+
+        MappedInputStream(final FileChannel channel, final long start, final long end, final long windowSize) {
+            this.channel = channel;
+            this.next = start;
+            this.end = end;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureWindow()) {
+                return -1;
+            }
+            return window.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return null == window ? 0 : window.remaining();
+        }
+
+        /**
+         * @return false when the whole range is read
+         */
+        private boolean ensureWindow() throws IOException {
+            if (null != window && window.hasRemaining()) {
+                return true;
+            }
+            if (next >= end) {
+                return false;
+            }
+            long size = Math.min(windowSize, end - next);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, next, size);
+            next += size;
+            return true;
+        }
+    }
+}
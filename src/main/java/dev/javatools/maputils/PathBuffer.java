@@ -0,0 +1,88 @@
+package dev.javatools.maputils;
+
+/**
+ * Growable buffer for the path of the element that is being processed while a map is walked.
+ * <pre>
+ *     Each level appends its key or list position and truncates the buffer back to the previous length when it is done,
+ *     so the prefix is never copied and only the final paths are created as Strings.
+ *          int length = pathBuffer.length();
+ *          pathBuffer.appendKey("city", true);     - primaryAddress.city
+ *          ...
+ *          pathBuffer.setLength(length);           - primaryAddress
+ *     With {@link PathSymbols} the paths are looked up in the table before a new String is created.
+ * </pre>
+ */
+final class PathBuffer {
+
+    private static final int CACHED_INDEXES = 1024;
+    private static final String[] INDEX_SUFFIXES = new String[CACHED_INDEXES];
+    private static final String ANY_INDEX = "[]";
+
+    static {
+        for (int i = 0; i < CACHED_INDEXES; i++) {
+            INDEX_SUFFIXES[i] = "[" + i + "]";
+        }
+    }
+
+    private final StringBuilder buffer = new StringBuilder(64);
+    private final PathSymbols symbols;
+
+    PathBuffer() {
+        this(null);
+    }
+
+    /**
+     * @param symbols table of the paths that are returned by toString, null to always create a new String
+     */
+    PathBuffer(final PathSymbols symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * @return current length of the path
+     */
+    int length() {
+        return buffer.length();
+    }
+
+    /**
+     * @param length length of the path to go back to
+     */
+    void setLength(final int length) {
+        buffer.setLength(length);
+    }
+
+    /**
+     * @param key    field name in the map
+     * @param nested true if the key is inside another element, then the key is separated from the path with a period
+     */
+    void appendKey(final Object key, final boolean nested) {
+        if (nested) {
+            buffer.append('.');
+        }
+        buffer.append(key);
+    }
+
+    /**
+     * @param index position in the list
+     */
+    void appendIndex(final int index) {
+        if (index < CACHED_INDEXES) {
+            buffer.append(INDEX_SUFFIXES[index]);
+        } else {
+            buffer.append('[').append(index).append(']');
+        }
+    }
+
+    /**
+     * Appends [] that stands for any position in the list.
+     */
+    void appendAnyIndex() {
+        buffer.append(ANY_INDEX);
+    }
+
+    @Override
+    public String toString() {
+        return null == symbols ? buffer.toString() : symbols.intern(buffer);
+    }
+}
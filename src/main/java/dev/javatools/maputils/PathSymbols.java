@@ -0,0 +1,107 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded table of path Strings, so that the same path of many documents is the same String instance.
+ * <pre>
+ *     Example:
+ *          PathSymbols symbols = new PathSymbols(8192);
+ *          for (Map order : orders) {
+ *              cache.put(order.get("id"), MapProperties.getCompactProperties(order, symbols));
+ *          }
+ *          - every order shares the key "items[3].sku" with the other orders, instead of keeping its own copy
+ *
+ *     A path is looked up by its characters while it is still in the buffer of the walk, so a path that is already
+ *     in the table does not create a String. Each path has two slots it can be kept in, when both are taken
+ *     by other paths the first one is replaced, so the table never grows beyond its capacity
+ *     and the paths that are not in the table are simply created again.
+ *     Lookups and replacements are lock free, an instance can be shared by all the threads.
+ * </pre>
+ */
+public final class PathSymbols {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    /**
+     * Table with room for DEFAULT_CAPACITY paths.
+     */
+    public PathSymbols() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of paths that are kept, rounded up to a power of two
+     */
+    public PathSymbols(final int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new MapUtilsException("Not a valid input, capacity should be between 1 and " + MAX_CAPACITY + ".");
+        }
+        int size = capacity == 1 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param path characters of the path
+     * @return String with the characters of the path, the same instance that was returned for the same path before
+     * unless it was replaced by other paths in the meantime
+     */
+    public String intern(final CharSequence path) {
+        int hash = hash(path);
+        int first = spread(hash) & mask;
+        String current = table.get(first);
+        if (matches(current, hash, path)) {
+            return current;
+        }
+        int second = (spread(hash * 0x9E3779B9) & mask) ^ 1;
+        String other = table.get(second);
+        if (matches(other, hash, path)) {
+            return other;
+        }
+        String created = path.toString();
+        table.lazySet(null != current && null == other ? second : first, created);
+        return created;
+    }
+
+    /**
+     * @return maximum number of paths that are kept
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     * Removes all the paths from the table.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, null);
+        }
+    }
+
+    /**
+     * @return the same value as String.hashCode of the path, so that it can be compared with the cached hash of the Strings in the table
+     */
+    private static int hash(final CharSequence path) {
+        int hash = 0;
+        for (int i = 0; i < path.length(); i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(final String symbol, final int hash, final CharSequence path) {
+        return null != symbol && symbol.hashCode() == hash && symbol.contentEquals(path);
+    }
+}
@@ -0,0 +1,194 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list, every change returns a new version that shares all the unchanged parts with the previous version.
+ * <pre>
+ *     Example:
+ *          PersistentList version1 = PersistentList.copyOf(addresses);
+ *          PersistentList version2 = version1.plus(newAddress);        - version1 is not changed
+ *          PersistentList version3 = version2.with(0, otherAddress);
+ *
+ *     The elements are kept in a tree of arrays of 32 elements, with the last elements in a separate tail array,
+ *     so that setting an element copies only the arrays on the way to it and adding an element usually copies only the tail.
+ *     Inserting an element anywhere else than at the end copies the whole list.
+ *     The methods of List that change the list throw UnsupportedOperationException.
+ *     Instances can be shared between threads.
+ * </pre>
+ */
+public final class PersistentList extends AbstractList<Object> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final PersistentList EMPTY = new PersistentList(0, BITS, new Object[WIDTH], EMPTY_ARRAY);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentList(final int size, final int shift, final Object[] root, final Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * @return list without elements
+     */
+    public static PersistentList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param source list that needs to be copied, the maps and lists in it are copied as well
+     * @return immutable copy of the list, the list itself if it is already a PersistentList
+     */
+    public static PersistentList copyOf(final List source) {
+        if (null == source) {
+            throw new MapUtilsException("Not a valid input, source list is mandatory.");
+        }
+        return (PersistentList) PersistentMap.persistent(source);
+    }
+
+    @Override
+    public Object get(final int index) {
+        return arrayFor(index)[index & MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param value element that needs to be added
+     * @return new version of the list with the element at the end
+     */
+    public PersistentList plus(final Object value) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = new Object[tail.length + 1];
+            System.arraycopy(tail, 0, newTail, 0, tail.length);
+            newTail[tail.length] = value;
+            return new PersistentList(size + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // the tree is full, it gets one more level
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentList(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    /**
+     * @param index position of the element, the size of the list to add the element at the end
+     * @param value element that needs to be set
+     * @return new version of the list with the element at the position
+     */
+    public PersistentList with(final int index, final Object value) {
+        if (index == size) {
+            return plus(value);
+        }
+        checkIndex(index);
+        if (arrayFor(index)[index & MASK] == value) {
+            return this;
+        }
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentList(size, shift, root, newTail);
+        }
+        return new PersistentList(size, shift, assoc(shift, root, index, value), tail);
+    }
+
+    /**
+     * @param index position of the element, the elements from this position move one position up
+     * @param value element that needs to be inserted
+     * @return new version of the list with the element at the position, the whole list is copied unless it is added at the end
+     */
+    public PersistentList insert(final int index, final Object value) {
+        if (index == size) {
+            return plus(value);
+        }
+        checkIndex(index);
+        List<Object> elements = new ArrayList<>(this);
+        elements.add(index, value);
+        PersistentList list = EMPTY;
+        for (Object element : elements) {
+            list = list.plus(element);
+        }
+        return list;
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * @return the array of 32 elements that has the element at the index
+     */
+    private Object[] arrayFor(final int index) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(final int level, final Object[] parent, final Object[] tailNode) {
+        int position = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        if (level == BITS) {
+            result[position] = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[position];
+            result[position] = null != child ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        return result;
+    }
+
+    private static Object[] newPath(final int level, final Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    private static Object[] assoc(final int level, final Object[] node, final int index, final Object value) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = value;
+        } else {
+            int position = (index >>> level) & MASK;
+            result[position] = assoc(level - BITS, (Object[]) node[position], index, value);
+        }
+        return result;
+    }
+}
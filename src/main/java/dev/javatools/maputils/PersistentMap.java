@@ -0,0 +1,368 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map, every change returns a new version that shares all the unchanged parts with the previous version.
+ * <pre>
+ *     Example:
+ *          PersistentMap version1 = PersistentMap.copyOf(config);
+ *          PersistentMap version2 = version1.with("timeout", 30);      - version1 is not changed
+ *          PersistentMap version3 = MapUpdate.with("database.pool.size", version2, 20);
+ *
+ *     The entries are kept in a hash array mapped trie, a tree of nodes with up to 32 branches that are chosen by 5 bits
+ *     of the hash of the key at a time, so a change copies only the few small nodes on the way to its key.
+ *     Entries are iterated in the order of the hashes of their keys, not in the order they were added.
+ *     The methods of Map that change the map throw UnsupportedOperationException.
+ *     Instances can be shared between threads.
+ * </pre>
+ */
+public final class PersistentMap extends AbstractMap<Object, Object> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_SHIFT = 30;
+    // key of a slot whose value is the node of the next level
+    private static final Object BRANCH = new Object();
+    private static final Object NOT_FOUND = new Object();
+    private static final Node EMPTY_NODE = new Node(0, 0, new Object[0]);
+    private static final PersistentMap EMPTY = new PersistentMap(EMPTY_NODE, 0);
+
+    /**
+     * Keys and values of one level, kept in pairs in the slots.
+     * The positions of a bitmap node are set in the bitmap, a collision node has the keys that have the same hash.
+     */
+    private static final class Node {
+        private final int bitmap;
+        private final int hash;
+        private final Object[] slots;
+
+        private Node(final int bitmap, final int hash, final Object[] slots) {
+            this.bitmap = bitmap;
+            this.hash = hash;
+            this.slots = slots;
+        }
+
+        private boolean isCollision() {
+            return bitmap == 0 && slots.length > 0;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<Object, Object>> entrySet;
+
+    private PersistentMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return map without entries
+     */
+    public static PersistentMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param source map that needs to be copied, the maps and lists in it are copied as well
+     * @return immutable copy of the map, the map itself if it is already a PersistentMap
+     */
+    public static PersistentMap copyOf(final Map source) {
+        if (null == source) {
+            throw new MapUtilsException("Not a valid input, source map is mandatory.");
+        }
+        return (PersistentMap) persistent(source);
+    }
+
+    /**
+     * @param value value of a map or list
+     * @return the value, maps and lists are replaced with persistent copies
+     */
+    static Object persistent(final Object value) {
+        if (value instanceof PersistentMap || value instanceof PersistentList) {
+            return value;
+        }
+        if (value instanceof Map) {
+            PersistentMap map = EMPTY;
+            for (Object item : ((Map) value).entrySet()) {
+                Map.Entry entry = (Map.Entry) item;
+                map = map.with(entry.getKey(), persistent(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof Collection) {
+            PersistentList list = PersistentList.empty();
+            for (Object element : (Collection) value) {
+                list = list.plus(persistent(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return new version of the map with the entry, this map if the key already has the same value
+     */
+    public PersistentMap with(final Object key, final Object value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = put(root, hash(key), key, value, 0, added);
+        return newRoot == root ? this : new PersistentMap(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param key key of the entry
+     * @return new version of the map without the entry, this map if there is no entry for the key
+     */
+    public PersistentMap without(final Object key) {
+        Node newRoot = remove(root, hash(key), key, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return null == newRoot ? EMPTY : new PersistentMap(newRoot, size - 1);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        Object value = find(key);
+        return value == NOT_FOUND ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new AbstractSet<Map.Entry<Object, Object>>() {
+                @Override
+                public Iterator<Map.Entry<Object, Object>> iterator() {
+                    return new EntryIterator(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * @return value of the key, or NOT_FOUND if the key is not in the map
+     */
+    private Object find(final Object key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (node.isCollision()) {
+                for (int i = 0; hash == node.hash && i < node.slots.length; i += 2) {
+                    if (Objects.equals(node.slots[i], key)) {
+                        return node.slots[i + 1];
+                    }
+                }
+                return NOT_FOUND;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+            Object slotKey = node.slots[index];
+            if (slotKey != BRANCH) {
+                return Objects.equals(slotKey, key) ? node.slots[index + 1] : NOT_FOUND;
+            }
+            node = (Node) node.slots[index + 1];
+        }
+    }
+
+    private static int hash(final Object key) {
+        int hash = Objects.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    private static Node put(final Node node, final int hash, final Object key, final Object value, final int shift, final boolean[] added) {
+        if (node.isCollision() && hash != node.hash) {
+            // the key is not one of the colliding keys, the collision moves one level down next to it
+            Node wrapper = new Node(1 << ((node.hash >>> shift) & MASK), 0, new Object[]{BRANCH, node});
+            return put(wrapper, hash, key, value, shift, added);
+        }
+        if (node.isCollision()) {
+            for (int i = 0; i < node.slots.length; i += 2) {
+                if (Objects.equals(node.slots[i], key)) {
+                    return node.slots[i + 1] == value ? node : replace(node, i + 1, value);
+                }
+            }
+            added[0] = true;
+            Object[] slots = Arrays.copyOf(node.slots, node.slots.length + 2);
+            slots[node.slots.length] = key;
+            slots[node.slots.length + 1] = value;
+            return new Node(0, node.hash, slots);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            Object[] slots = new Object[node.slots.length + 2];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = key;
+            slots[index + 1] = value;
+            System.arraycopy(node.slots, index, slots, index + 2, node.slots.length - index);
+            return new Node(node.bitmap | bit, 0, slots);
+        }
+        Object slotKey = node.slots[index];
+        Object slotValue = node.slots[index + 1];
+        if (slotKey == BRANCH) {
+            Node child = put((Node) slotValue, hash, key, value, shift + BITS, added);
+            return child == slotValue ? node : replace(node, index + 1, child);
+        }
+        if (Objects.equals(slotKey, key)) {
+            return slotValue == value ? node : replace(node, index + 1, value);
+        }
+        added[0] = true;
+        Node branch = branch(hash(slotKey), slotKey, slotValue, hash, key, value, shift + BITS);
+        Object[] slots = node.slots.clone();
+        slots[index] = BRANCH;
+        slots[index + 1] = branch;
+        return new Node(node.bitmap, 0, slots);
+    }
+
+    /**
+     * @return node of the next level with the two entries
+     */
+    private static Node branch(final int firstHash, final Object firstKey, final Object firstValue,
+                               final int secondHash, final Object secondKey, final Object secondValue, final int shift) {
+        if (firstHash == secondHash || shift > MAX_SHIFT) {
+            return new Node(0, firstHash, new Object[]{firstKey, firstValue, secondKey, secondValue});
+        }
+        int firstPosition = (firstHash >>> shift) & MASK;
+        int secondPosition = (secondHash >>> shift) & MASK;
+        int bitmap = (1 << firstPosition) | (1 << secondPosition);
+        if (firstPosition == secondPosition) {
+            return new Node(bitmap, 0, new Object[]{BRANCH,
+                    branch(firstHash, firstKey, firstValue, secondHash, secondKey, secondValue, shift + BITS)});
+        }
+        return firstPosition < secondPosition
+                ? new Node(bitmap, 0, new Object[]{firstKey, firstValue, secondKey, secondValue})
+                : new Node(bitmap, 0, new Object[]{secondKey, secondValue, firstKey, firstValue});
+    }
+
+    /**
+     * @return the node without the key, the same node if the key is not in it, or null if the node is empty
+     */
+    private static Node remove(final Node node, final int hash, final Object key, final int shift) {
+        if (node.isCollision()) {
+            for (int i = 0; i < node.slots.length; i += 2) {
+                if (Objects.equals(node.slots[i], key)) {
+                    return node.slots.length == 2 ? null : new Node(0, node.hash, removeSlots(node.slots, i));
+                }
+            }
+            return node;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        Object slotKey = node.slots[index];
+        if (slotKey == BRANCH) {
+            Node child = remove((Node) node.slots[index + 1], hash, key, shift + BITS);
+            if (child == node.slots[index + 1]) {
+                return node;
+            }
+            if (null != child) {
+                return replace(node, index + 1, child);
+            }
+        } else if (!Objects.equals(slotKey, key)) {
+            return node;
+        }
+        return node.bitmap == bit ? null : new Node(node.bitmap ^ bit, 0, removeSlots(node.slots, index));
+    }
+
+    private static Node replace(final Node node, final int index, final Object value) {
+        Object[] slots = node.slots.clone();
+        slots[index] = value;
+        return new Node(node.bitmap, node.hash, slots);
+    }
+
+    private static Object[] removeSlots(final Object[] slots, final int index) {
+        Object[] result = new Object[slots.length - 2];
+        System.arraycopy(slots, 0, result, 0, index);
+        System.arraycopy(slots, index + 2, result, index, slots.length - index - 2);
+        return result;
+    }
+
+    /**
+     * Walks the nodes depth first, keeping the slots and the next position of every level on a stack.
+     */
+    private static final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private final Deque<Object[]> slotStack = new ArrayDeque<>();
+        private final Deque<Integer> positionStack = new ArrayDeque<>();
+        private Object[] slots;
+        private int position;
+        private Map.Entry<Object, Object> next;
+
+        private EntryIterator(final Node root) {
+            this.slots = root.slots;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (null == next) {
+                if (position >= slots.length) {
+                    if (slotStack.isEmpty()) {
+                        return;
+                    }
+                    slots = slotStack.pop();
+                    position = positionStack.pop();
+                } else if (slots[position] == BRANCH) {
+                    slotStack.push(slots);
+                    positionStack.push(position + 2);
+                    slots = ((Node) slots[position + 1]).slots;
+                    position = 0;
+                } else {
+                    next = new AbstractMap.SimpleImmutableEntry<>(slots[position], slots[position + 1]);
+                    position += 2;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        @Override
+        public Map.Entry<Object, Object> next() {
+            if (null == next) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Object, Object> current = next;
+            advance();
+            return current;
+        }
+    }
+}
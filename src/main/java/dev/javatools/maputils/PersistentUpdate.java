@@ -0,0 +1,123 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.CompiledPath.Segment;
+import dev.javatools.maputils.CompiledPath.Type;
+import dev.javatools.maputils.helpers.BoundedCache;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets the value of a path on a {@link PersistentMap}, by creating new versions of the maps and lists on the path
+ * and sharing everything else with the previous version.
+ * <pre>
+ *     Example, primaryAddress.city = Irving
+ *          root            - new version
+ *              name        - shared
+ *              friends     - shared
+ *              primaryAddress  - new version
+ *                  city = Irving
+ *                  zip     - shared
+ *     The result is the same as {@link UpdatePlan#set(Map, Object)} on a copy of the map,
+ *     when the update fails the previous version is not changed at all.
+ * </pre>
+ */
+final class PersistentUpdate {
+
+    private static final int SEGMENT_CACHE_SIZE = 1024;
+    private static final BoundedCache<String, Segment[]> SEGMENT_CACHE = new BoundedCache<>(SEGMENT_CACHE_SIZE, PersistentUpdate::parse);
+
+    private PersistentUpdate() {
+    }
+
+    private static Segment[] parse(final String mapPath) {
+        Segment[] segments = CompiledPath.parse(mapPath, true);
+        if (segments.length == 0) {
+            throw new MapUtilsException("Not a valid input, mapPath is empty.");
+        }
+        return segments;
+    }
+
+    /**
+     * @param mapPath   Path in the Map, see {@link MapUpdate} for the supported format.
+     * @param sourceMap the map that needs to be updated, it is copied into a PersistentMap first if it is not one
+     * @param value     the value of the path, null values remove the field. Maps and lists are copied,
+     *                  so changing them afterwards does not change the new version.
+     * @return new version of the map
+     */
+    static PersistentMap with(final String mapPath, final Map sourceMap, final Object value) {
+        return with(PersistentMap.copyOf(sourceMap), SEGMENT_CACHE.get(mapPath), 0, null, PersistentMap.persistent(value));
+    }
+
+    private static PersistentMap with(final PersistentMap sourceMap, final Segment[] segments, final int position,
+                                      final String parentPath, final Object value) {
+        Segment segment = segments[position];
+        String processPath = null == parentPath ? segment.text : parentPath + "." + segment.text;
+        boolean terminal = position == segments.length - 1;
+        if (segment.type == Type.KEY && terminal) {
+            return null == value ? sourceMap.without(segment.key) : sourceMap.with(segment.key, value);
+        }
+        Object innerElement = sourceMap.get(segment.key);
+        if (segment.type == Type.KEY) {
+            if (innerElement instanceof Map) {
+                return sourceMap.with(segment.key, with(PersistentMap.copyOf((Map) innerElement), segments, position + 1, processPath, value));
+            } else if (null == innerElement) {
+                return sourceMap.with(segment.key, with(PersistentMap.empty(), segments, position + 1, processPath, value));
+            }
+            throw new MapUtilsException(segment.key + " is not a Map. Its object type is " + innerElement.getClass().getName() + ". At this time only maps and lists are supported.");
+        }
+        PersistentList sourceList;
+        if (innerElement instanceof List) {
+            sourceList = PersistentList.copyOf((List) innerElement);
+        } else if (null == innerElement) {
+            sourceList = PersistentList.empty();
+        } else {
+            throw new MapUtilsException(processPath + " is not a list. Its object type is " + innerElement.getClass().getName());
+        }
+        return sourceMap.with(segment.key, with(sourceList, segments, position, processPath, value));
+    }
+
+    private static PersistentList with(final PersistentList sourceList, final Segment[] segments, final int position,
+                                       final String processPath, final Object value) {
+        Segment segment = segments[position];
+        boolean terminal = position == segments.length - 1;
+        PersistentList result = sourceList;
+        switch (segment.type) {
+            case FILTER:
+                for (int i = 0; i < sourceList.size(); i++) {
+                    Object currentElement = sourceList.get(i);
+                    if (segment.matchesText(currentElement)) {
+                        if (terminal && null == value) {
+                            throw new MapUtilsException(processPath + ": Found the element in this path, but removing elements from a list is not supported.");
+                        } else if (terminal) {
+                            throw new MapUtilsException(processPath + ": Found the element in this path, but to assign the value, we also need a key.");
+                        } else {
+                            result = result.with(i, with(PersistentMap.copyOf((Map) currentElement), segments, position + 1, processPath, value));
+                        }
+                    }
+                }
+                return result;
+            case INDEX:
+                if (terminal) {
+                    return result.plus(value);
+                }
+                while (result.size() <= segment.index) {
+                    result = result.plus(PersistentMap.empty());
+                }
+                Object indexElement = result.get(segment.index);
+                PersistentMap element = null == indexElement ? PersistentMap.empty() : PersistentMap.copyOf((Map) indexElement);
+                return result.with(segment.index, with(element, segments, position + 1, processPath, value));
+            case FIRST:
+                if (terminal) {
+                    return null == value ? result : result.plus(value);
+                }
+                if (result.isEmpty() || null == result.get(0)) {
+                    result = result.insert(0, PersistentMap.empty());
+                }
+                return result.with(0, with(PersistentMap.copyOf((Map) result.get(0)), segments, position + 1, processPath, value));
+            default:
+                throw new MapUtilsException(segment.error);
+        }
+    }
+}
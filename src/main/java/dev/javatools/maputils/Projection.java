@@ -0,0 +1,140 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.CompiledPath.Segment;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of map paths that are read together, the paths are merged into a tree on their common prefixes
+ * so that a map is walked only once for all of them.
+ * <pre>
+ *     Example:
+ *          Projection projection = MapProperty.projection(List.of("name", "primaryAddress.city", "primaryAddress.zip"));
+ *          Object[] row = projection.values(person);        - {"James Butt", "Irving", "75063"}
+ *
+ *          name
+ *          primaryAddress  - read once
+ *              city
+ *              zip
+ *     Each value is the same as {@link MapProperty#get(String, Map)} returns for its path.
+ *     Instances are immutable and can be shared between threads.
+ * </pre>
+ */
+public final class Projection {
+
+    /**
+     * One element of the paths, with the elements that follow it and the positions of the paths that end here.
+     */
+    private static final class Node {
+        private final Segment segment;
+        private final Map<String, Node> childrenByText = new LinkedHashMap<>();
+        private final List<Integer> outputList = new ArrayList<>();
+        private Node[] children;
+        private int[] outputs;
+
+        private Node(final Segment segment) {
+            this.segment = segment;
+        }
+
+        private void freeze() {
+            children = childrenByText.values().toArray(new Node[0]);
+            outputs = outputList.stream().mapToInt(Integer::intValue).toArray();
+            for (Node child : children) {
+                child.freeze();
+            }
+        }
+    }
+
+    private final List<String> paths;
+    private final Node root = new Node(null);
+
+    private Projection(final List<String> paths) {
+        this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+        for (int i = 0; i < paths.size(); i++) {
+            Node node = root;
+            for (Segment segment : MapProperty.compile(paths.get(i)).getSegments()) {
+                node = node.childrenByText.computeIfAbsent(segment.text, text -> new Node(segment));
+            }
+            node.outputList.add(i);
+        }
+        root.freeze();
+    }
+
+    /**
+     * @param paths paths to the fields in Map, see {@link MapProperty} for the supported format.
+     * @return paths merged on their common prefixes
+     */
+    static Projection compile(final List<String> paths) {
+        if (null == paths) {
+            throw new MapUtilsException("Not a valid input, paths are mandatory.");
+        }
+        return new Projection(paths);
+    }
+
+    /**
+     * @param sourceMap Source map that needs to be searched
+     * @return the value of each path, in the same order as the paths, null for the paths that do not exist.
+     */
+    public Object[] values(final Map sourceMap) {
+        Object[] values = new Object[paths.size()];
+        if (null != sourceMap) {
+            for (Node child : root.children) {
+                collect(child, sourceMap, values);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param sourceMap Source map that needs to be searched
+     * @return the value of each path by path, in the same order as the paths, null for the paths that do not exist.
+     */
+    public Map<String, Object> project(final Map sourceMap) {
+        Object[] values = values(sourceMap);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            results.put(paths.get(i), values[i]);
+        }
+        return results;
+    }
+
+    /**
+     * @return the paths this projection was compiled from
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    private static void collect(final Node node, final Map sourceMap, final Object[] values) {
+        Object value = CompiledPath.get(node.segment, sourceMap);
+        if (null == value) {
+            return;
+        }
+        for (int output : node.outputs) {
+            values[output] = value;
+        }
+        for (Node child : node.children) {
+            collect(child, (Map) value, values);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Projection && paths.equals(((Projection) other).paths);
+    }
+
+    @Override
+    public int hashCode() {
+        return paths.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return paths.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map of properties, that keeps the keys in a sorted array and the values in an array of the same order.
+ * <pre>
+ *     Example:
+ *          PropertyMap properties = MapProperties.getCompactProperties(person);
+ *          properties.get("primaryAddress.city");          - New Orleans, binary search on the keys
+ *
+ *          keys    [age, dateOfBirth, friends[0].age, ..., primaryAddress.zip]
+ *          values  [25,  1995-05-15,  22,             ..., 70116]
+ *     There are no entry objects, so a property takes two array slots instead of an entry of a TreeMap or HashMap.
+ *     The entries are iterated in the order of the keys, the same order as {@link MapProperties#getProperties(Map)}.
+ *     The map can not be changed, the methods that change it throw UnsupportedOperationException.
+ *     Instances can be shared between threads.
+ * </pre>
+ */
+public final class PropertyMap extends AbstractMap<String, Object> {
+
+    private static final PropertyMap EMPTY = new PropertyMap(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    private PropertyMap(final String[] keys, final Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @param properties properties that need to be copied, the keys can not be null
+     * @return immutable copy of the properties
+     */
+    public static PropertyMap copyOf(final Map<String, ?> properties) {
+        if (null == properties) {
+            throw new MapUtilsException("Not a valid input, properties are mandatory.");
+        }
+        if (properties instanceof PropertyMap) {
+            return (PropertyMap) properties;
+        }
+        if (properties.isEmpty()) {
+            return EMPTY;
+        }
+        Map.Entry[] entries = properties.entrySet().toArray(new Map.Entry[0]);
+        for (Map.Entry entry : entries) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new MapUtilsException("Not a valid property: " + entry.getKey() + ", the keys should be Strings.");
+            }
+        }
+        // a sorted map with its natural order is already in the order of the keys
+        if (!(properties instanceof SortedMap) || null != ((SortedMap) properties).comparator()) {
+            Arrays.sort(entries, (first, second) -> ((String) first.getKey()).compareTo((String) second.getKey()));
+        }
+        String[] keys = new String[entries.length];
+        Object[] values = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = (String) entries[i].getKey();
+            values[i] = entries[i].getValue();
+        }
+        return new PropertyMap(keys, values);
+    }
+
+    /**
+     * @param key property
+     * @return position of the property in the keys, or a negative number if it is not in the map
+     */
+    private int indexOf(final Object key) {
+        return key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @param index position of the property, in the order of the keys
+     * @return key of the property
+     */
+    public String keyAt(final int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index position of the property, in the order of the keys
+     * @return value of the property
+     */
+    public Object valueAt(final int index) {
+        return values[index];
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (next >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new AbstractMap.SimpleImmutableEntry<>(keys[index], values[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+        return entrySet;
+    }
+}
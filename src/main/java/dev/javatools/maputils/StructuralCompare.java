@@ -0,0 +1,263 @@
+package dev.javatools.maputils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares two map trees by walking both of them at the same time, and stops at the first difference.
+ * <pre>
+ *     The result is the same as comparing the sorted properties of both maps (see {@link MapProperties})
+ *          1. values are compared after they are converted the same way as {@link MapSort} converts them
+ *          2. null values, empty maps and empty lists are the same as a missing field
+ *          3. lists are compared as sets, the order of the elements and the repeated elements do not matter
+ *     Lists are matched by hashing the elements, the elements are only compared with the elements that have the same hash.
+ * </pre>
+ */
+final class StructuralCompare {
+
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final int PARALLEL_CHUNK_SIZE = 256;
+
+    private StructuralCompare() {
+    }
+
+    /**
+     * @param left     first map
+     * @param right    second map
+     * @param parallel compare the fields of wide maps in the common fork join pool
+     * @return true if both the maps have the same content
+     */
+    static boolean equal(final Map left, final Map right, final boolean parallel) {
+        return equalMaps(stringKeys(left), stringKeys(right), parallel);
+    }
+
+    /**
+     * @param left  first value, already normalized
+     * @param right second value, already normalized
+     * @return true if both the values have the same content
+     */
+    static boolean equalValues(final Object left, final Object right) {
+        if (left instanceof Map) {
+            return right instanceof Map && equalMaps(stringKeys((Map) left), stringKeys((Map) right), false);
+        } else if (left instanceof List) {
+            return right instanceof List && equalLists((List) left, (List) right);
+        } else {
+            return Objects.equals(left, right);
+        }
+    }
+
+    /**
+     * @param value value that is already normalized
+     * @return true if the value does not produce any property, that is null or maps and lists without any values.
+     */
+    static boolean isEmpty(final Object value) {
+        if (null == value) {
+            return true;
+        } else if (value instanceof Map) {
+            for (Object item : ((Map) value).values()) {
+                if (!isEmpty(MapConverter.normalizeValue(item))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (value instanceof List) {
+            for (Object item : (List) value) {
+                if (!isEmpty(MapConverter.normalizeValue(item))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param map map that needs to be compared
+     * @return the same map if all the keys are Strings, otherwise the map converted by the json mapper.
+     */
+    static Map stringKeys(final Map map) {
+        return MapConverter.hasStringKeys(map) ? map : (Map) MapConverter.toTree(map);
+    }
+
+    private static boolean equalMaps(final Map left, final Map right, final boolean parallel) {
+        int rightCount = countValues(right);
+        if (parallel && left.size() >= PARALLEL_THRESHOLD) {
+            Object[] keys = left.keySet().toArray();
+            AtomicBoolean different = new AtomicBoolean();
+            int leftCount = ForkJoinPool.commonPool().invoke(new CompareTask(keys, 0, keys.length, left, right, different));
+            return !different.get() && leftCount == rightCount;
+        }
+        int leftCount = 0;
+        for (Object item : left.entrySet()) {
+            Map.Entry entry = (Map.Entry) item;
+            Object leftValue = MapConverter.normalizeValue(entry.getValue());
+            if (isEmpty(leftValue)) {
+                continue;
+            }
+            if (++leftCount > rightCount || !equalEntry(leftValue, right.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return leftCount == rightCount;
+    }
+
+    private static boolean equalEntry(final Object leftValue, final Object rightItem) {
+        Object rightValue = MapConverter.normalizeValue(rightItem);
+        return !isEmpty(rightValue) && equalValues(leftValue, rightValue);
+    }
+
+    private static int countValues(final Map map) {
+        int count = 0;
+        for (Object item : map.values()) {
+            if (!isEmpty(MapConverter.normalizeValue(item))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static boolean equalLists(final List left, final List right) {
+        return equalElements(distinctElements(left, null, null), distinctElements(right, null, null));
+    }
+
+    /**
+     * @param leftElements  distinct elements of a list, see {@link #distinctElements(List, Object[], int[])}
+     * @param rightElements distinct elements of the other list
+     * @return true if the lists have the same distinct elements
+     */
+    static boolean equalElements(final Map<Integer, List<Object>> leftElements, final Map<Integer, List<Object>> rightElements) {
+        if (leftElements.size() != rightElements.size() || !leftElements.keySet().equals(rightElements.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Integer, List<Object>> bucket : leftElements.entrySet()) {
+            List<Object> rightBucket = rightElements.get(bucket.getKey());
+            if (bucket.getValue().size() != rightBucket.size()) {
+                return false;
+            }
+            for (Object leftElement : bucket.getValue()) {
+                if (!contains(rightBucket, leftElement)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param list     list of values
+     * @param elements null, or array of the size of the list that receives the normalized element of each position
+     * @param hashes   null, or array of the size of the list that receives the hash of each normalized element
+     * @return distinct normalized elements of the list, grouped by their hash
+     */
+    static Map<Integer, List<Object>> distinctElements(final List list, final Object[] elements, final int[] hashes) {
+        Map<Integer, List<Object>> buckets = new HashMap<>();
+        int index = 0;
+        for (Object item : list) {
+            Object element = MapConverter.normalizeValue(item);
+            int hash = hash(element);
+            List<Object> bucket = buckets.computeIfAbsent(hash, key -> new ArrayList<>(1));
+            if (!contains(bucket, element)) {
+                bucket.add(element);
+            }
+            if (null != elements) {
+                elements[index] = element;
+                hashes[index] = hash;
+            }
+            index++;
+        }
+        return buckets;
+    }
+
+    static boolean contains(final List<Object> bucket, final Object element) {
+        for (Object candidate : bucket) {
+            if (equalValues(candidate, element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param value value that is already normalized
+     * @return hash of the value that is the same for all the values that are equal by {@link #equalValues(Object, Object)}
+     */
+    static int hash(final Object value) {
+        if (value instanceof Map) {
+            Map map = stringKeys((Map) value);
+            int hash = 0;
+            for (Object item : map.entrySet()) {
+                Map.Entry entry = (Map.Entry) item;
+                Object entryValue = MapConverter.normalizeValue(entry.getValue());
+                if (!isEmpty(entryValue)) {
+                    hash += entry.getKey().hashCode() ^ hash(entryValue);
+                }
+            }
+            return hash;
+        } else if (value instanceof List) {
+            // repeated elements are ignored, so only the distinct hashes are added
+            Set<Integer> hashes = new HashSet<>();
+            int hash = 1;
+            for (Object item : (List) value) {
+                int elementHash = hash(MapConverter.normalizeValue(item));
+                if (hashes.add(elementHash)) {
+                    hash += elementHash;
+                }
+            }
+            return hash;
+        }
+        return Objects.hashCode(value);
+    }
+
+    /**
+     * Compares a range of the fields of a wide map, returns the number of fields with a value or -1 when a difference is found.
+     */
+    private static final class CompareTask extends RecursiveTask<Integer> {
+
+        private final Object[] keys;
+        private final int from;
+        private final int to;
+        private final Map left;
+        private final Map right;
+        private final AtomicBoolean different;
+
+        CompareTask(final Object[] keys, final int from, final int to, final Map left, final Map right, final AtomicBoolean different) {
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+            this.left = left;
+            this.right = right;
+            this.different = different;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > PARALLEL_CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                CompareTask first = new CompareTask(keys, from, middle, left, right, different);
+                first.fork();
+                int second = new CompareTask(keys, middle, to, left, right, different).compute();
+                return first.join() + second;
+            }
+            int count = 0;
+            for (int i = from; i < to && !different.get(); i++) {
+                Object leftValue = MapConverter.normalizeValue(left.get(keys[i]));
+                if (isEmpty(leftValue)) {
+                    continue;
+                }
+                count++;
+                if (!equalEntry(leftValue, right.get(keys[i]))) {
+                    different.set(true);
+                }
+            }
+            return count;
+        }
+    }
+}
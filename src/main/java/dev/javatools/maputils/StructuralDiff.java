@@ -0,0 +1,109 @@
+package dev.javatools.maputils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Walks two map trees at the same time and reports every difference to a {@link DiffListener}.
+ * Values are compared the same way as {@link StructuralCompare}, so there are no differences exactly when the maps are equal.
+ * The path is kept in one buffer that is truncated when the walk goes back up, a path String is only created for a difference.
+ */
+final class StructuralDiff {
+
+    private final DiffListener listener;
+    private final StringBuilder path = new StringBuilder();
+
+    private StructuralDiff(final DiffListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param left     first map
+     * @param right    second map
+     * @param listener receives the differences
+     */
+    static void diff(final Map left, final Map right, final DiffListener listener) {
+        new StructuralDiff(listener).diffMaps(left, right);
+    }
+
+    private void diffMaps(final Map leftMap, final Map rightMap) {
+        Map left = StructuralCompare.stringKeys(leftMap);
+        Map right = StructuralCompare.stringKeys(rightMap);
+        int length = path.length();
+        for (Object item : left.entrySet()) {
+            Map.Entry entry = (Map.Entry) item;
+            Object leftValue = MapConverter.normalizeValue(entry.getValue());
+            if (StructuralCompare.isEmpty(leftValue)) {
+                continue;
+            }
+            Object rightValue = MapConverter.normalizeValue(right.get(entry.getKey()));
+            appendKey(entry.getKey(), length);
+            if (StructuralCompare.isEmpty(rightValue)) {
+                listener.removed(path.toString(), leftValue);
+            } else {
+                diffValues(leftValue, rightValue);
+            }
+            path.setLength(length);
+        }
+        for (Object item : right.entrySet()) {
+            Map.Entry entry = (Map.Entry) item;
+            Object rightValue = MapConverter.normalizeValue(entry.getValue());
+            if (!StructuralCompare.isEmpty(rightValue) && StructuralCompare.isEmpty(MapConverter.normalizeValue(left.get(entry.getKey())))) {
+                appendKey(entry.getKey(), length);
+                listener.added(path.toString(), rightValue);
+                path.setLength(length);
+            }
+        }
+    }
+
+    private void diffValues(final Object left, final Object right) {
+        if (left instanceof Map && right instanceof Map) {
+            diffMaps((Map) left, (Map) right);
+        } else if (left instanceof List && right instanceof List) {
+            diffLists((List) left, (List) right);
+        } else if (!Objects.equals(left, right)) {
+            listener.changed(path.toString(), left, right);
+        }
+    }
+
+    private void diffLists(final List left, final List right) {
+        // the normalized elements and their hashes are kept, so that every element is normalized and hashed once
+        Object[] leftValues = new Object[left.size()];
+        int[] leftHashes = new int[left.size()];
+        Object[] rightValues = new Object[right.size()];
+        int[] rightHashes = new int[right.size()];
+        Map<Integer, List<Object>> leftElements = StructuralCompare.distinctElements(left, leftValues, leftHashes);
+        Map<Integer, List<Object>> rightElements = StructuralCompare.distinctElements(right, rightValues, rightHashes);
+        if (StructuralCompare.equalElements(leftElements, rightElements)) {
+            return;
+        }
+        int length = path.length();
+        for (int index = 0; index < leftValues.length; index++) {
+            if (!contains(rightElements, leftHashes[index], leftValues[index])) {
+                path.append('[').append(index).append(']');
+                listener.removed(path.toString(), leftValues[index]);
+                path.setLength(length);
+            }
+        }
+        for (int index = 0; index < rightValues.length; index++) {
+            if (!contains(leftElements, rightHashes[index], rightValues[index])) {
+                path.append('[').append(index).append(']');
+                listener.added(path.toString(), rightValues[index]);
+                path.setLength(length);
+            }
+        }
+    }
+
+    private static boolean contains(final Map<Integer, List<Object>> elements, final int hash, final Object element) {
+        List<Object> bucket = elements.get(hash);
+        return null != bucket && StructuralCompare.contains(bucket, element);
+    }
+
+    private void appendKey(final Object key, final int length) {
+        if (length > 0) {
+            path.append('.');
+        }
+        path.append(key);
+    }
+}
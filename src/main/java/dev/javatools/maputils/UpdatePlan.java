@@ -0,0 +1,95 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+import dev.javatools.maputils.metrics.Metrics;
+import dev.javatools.maputils.metrics.Operation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Map path that is parsed once, so that values can be set on any number of maps without parsing the path again.
+ * <pre>
+ *     Example:
+ *          UpdatePlan plan = MapUpdate.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city");
+ *          for (Map person : people) {
+ *              plan.set(person, "Irving");
+ *          }
+ *
+ *     The path format and the behaviour are the same as {@link MapUpdate#set(String, Map, Object)}.
+ *     Instances are immutable and can be shared between threads, the maps that are updated are not synchronized.
+ * </pre>
+ */
+public final class UpdatePlan {
+
+    private final String path;
+    private final UpdateTree tree;
+
+    private UpdatePlan(final String path, final UpdateTree tree) {
+        this.path = path;
+        this.tree = tree;
+    }
+
+    /**
+     * @param mapPath Path in the Map, see {@link MapUpdate} for the supported format.
+     * @return parsed representation of the path
+     */
+    static UpdatePlan compile(final String mapPath) {
+        if (null == mapPath) {
+            throw new MapUtilsException("Not a valid input, mapPath is mandatory.");
+        }
+        return new UpdatePlan(mapPath, UpdateTree.compile(Collections.singletonList(mapPath)));
+    }
+
+    /**
+     * @param sourceMap the map that needs to be updated
+     * @param value     the value that needs to be updated with in this path,
+     *                  if the value is null, then the field will be removed from the map (if there are no filters in the path).
+     */
+    public void set(final Map sourceMap, final Object value) {
+        if (null == sourceMap) {
+            throw new MapUtilsException("Not a valid input, mapPath and sourceMap are mandatory fields.");
+        }
+        long start = Metrics.start();
+        tree.apply(sourceMap, new Object[]{value});
+        Metrics.stop(Operation.UPDATE, start, null);
+    }
+
+    /**
+     * Same as {@link #set(Map, Object)}, for a map that is updated by many threads at the same time,
+     * see {@link MapUpdate#setConcurrent(String, Map, Object)}.
+     *
+     * @param sourceMap the map that needs to be updated, a ConcurrentMap
+     * @param value     the value that needs to be updated with in this path, null values remove the field.
+     */
+    public void setConcurrent(final Map sourceMap, final Object value) {
+        if (null == sourceMap) {
+            throw new MapUtilsException("Not a valid input, mapPath and sourceMap are mandatory fields.");
+        }
+        long start = Metrics.start();
+        tree.applyConcurrent(sourceMap, new Object[]{value});
+        Metrics.stop(Operation.UPDATE, start, null);
+    }
+
+    /**
+     * @return the path this plan was compiled from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof UpdatePlan && path.equals(((UpdatePlan) other).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,328 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.CompiledPath.Segment;
+import dev.javatools.maputils.CompiledPath.Type;
+import dev.javatools.maputils.helpers.MapUtilsException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Update paths merged into a tree on their common prefixes, so that a map is walked only once to set the values of all the paths.
+ * <pre>
+ *     Example, the updates
+ *          primaryAddress.city     = Irving
+ *          name                    = James Butt
+ *          primaryAddress.zip      = 75063
+ *     are applied as
+ *          primaryAddress          - looked up or created once
+ *              city = Irving
+ *              zip = 75063
+ *          name = James Butt
+ *     The result is the same as setting the paths one after the other with {@link UpdatePlan}, an update is merged with an earlier
+ *     update only when none of the updates between them changes the same field, otherwise it is applied in its own order.
+ *     When an update fails, the updates that are already applied to the map may not be the same.
+ * </pre>
+ */
+final class UpdateTree {
+
+    /**
+     * One element of a path, either the value is set at this element or the walk continues into the child node.
+     */
+    private static final class Step {
+        private final Segment segment;
+        // path navigated until this element, used in the error messages
+        private final String processPath;
+        private final int valueIndex;
+        private final Node child;
+
+        private Step(final Segment segment, final String processPath, final int valueIndex, final Node child) {
+            this.segment = segment;
+            this.processPath = processPath;
+            this.valueIndex = valueIndex;
+            this.child = child;
+        }
+
+        private boolean isTerminal() {
+            return null == child;
+        }
+    }
+
+    /**
+     * Steps that are applied on the same map, in the order of the updates.
+     */
+    private static final class Node {
+        private final List<Step> stepList = new ArrayList<>();
+        private Step[] steps;
+        private String[] keys;
+
+        private void freeze() {
+            steps = stepList.toArray(new Step[0]);
+            keys = new String[steps.length];
+            for (int i = 0; i < steps.length; i++) {
+                keys[i] = steps[i].segment.key;
+                if (!steps[i].isTerminal()) {
+                    steps[i].child.freeze();
+                }
+            }
+        }
+
+        /**
+         * @return the last child step with the same element, if no other step after it changes the same field.
+         */
+        private Step reusableChild(final Segment segment) {
+            for (int i = stepList.size() - 1; i >= 0; i--) {
+                Step step = stepList.get(i);
+                if (step.segment.key.equals(segment.key)) {
+                    return !step.isTerminal() && step.segment.text.equals(segment.text) && !changesFilter(step) ? step : null;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the step is a filter and the updates below it change the fields of the filter,
+     * then the next update with the same filter may find other elements.
+     */
+    private static boolean changesFilter(final Step step) {
+        if (step.segment.type != Type.FILTER) {
+            return false;
+        }
+        for (Step childStep : step.child.stepList) {
+            for (String filterKey : step.segment.filterKeys) {
+                if (filterKey.equals(childStep.segment.key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final Node root = new Node();
+
+    private UpdateTree(final List<String> paths) {
+        for (int i = 0; i < paths.size(); i++) {
+            Segment[] segments = CompiledPath.parse(paths.get(i), true);
+            if (segments.length == 0) {
+                throw new MapUtilsException("Not a valid input, mapPath is empty.");
+            }
+            Node node = root;
+            String processPath = null;
+            for (int position = 0; position < segments.length; position++) {
+                Segment segment = segments[position];
+                processPath = null == processPath ? segment.text : processPath + "." + segment.text;
+                if (position == segments.length - 1) {
+                    node.stepList.add(new Step(segment, processPath, i, null));
+                } else {
+                    Step step = node.reusableChild(segment);
+                    if (null == step) {
+                        step = new Step(segment, processPath, -1, new Node());
+                        node.stepList.add(step);
+                    }
+                    node = step.child;
+                }
+            }
+        }
+        root.freeze();
+    }
+
+    /**
+     * @param paths update paths, see {@link MapUpdate} for the supported format.
+     * @return paths merged into a tree
+     */
+    static UpdateTree compile(final List<String> paths) {
+        for (String path : paths) {
+            if (null == path) {
+                throw new MapUtilsException("Not a valid input, mapPath is mandatory.");
+            }
+        }
+        return new UpdateTree(paths);
+    }
+
+    /**
+     * @param sourceMap the map that needs to be updated
+     * @param values    value of each path, in the same order as the paths, null values remove the field.
+     */
+    void apply(final Map sourceMap, final Object[] values) {
+        apply(root, sourceMap, values, false);
+    }
+
+    /**
+     * Same as {@link #apply(Map, Object[])}, for maps that are updated by many threads at the same time.
+     * <pre>
+     *     The missing maps are created as ConcurrentHashMaps and the missing lists as CopyOnWriteArrayLists,
+     *     in a ConcurrentMap they are created with computeIfAbsent, so two threads always continue with the same element.
+     *     The changes of a list that need more than one step (filling the list up to a position, inserting the first element)
+     *     hold the lock of that list only, the updates of other lists and of the maps do not wait for each other.
+     *     The maps and lists that already exist are used as they are, they should be concurrent as well.
+     * </pre>
+     *
+     * @param sourceMap the map that needs to be updated, a ConcurrentMap
+     * @param values    value of each path, in the same order as the paths, null values remove the field.
+     */
+    void applyConcurrent(final Map sourceMap, final Object[] values) {
+        apply(root, sourceMap, values, true);
+    }
+
+    private static void apply(final Node node, final Map sourceMap, final Object[] values, final boolean concurrent) {
+        for (Step step : node.steps) {
+            Segment segment = step.segment;
+            if (segment.type == Type.KEY && step.isTerminal()) {
+                Object fieldValue = values[step.valueIndex];
+                if (fieldValue == null) {
+                    sourceMap.remove(segment.key);
+                } else {
+                    sourceMap.put(segment.key, fieldValue);
+                }
+                continue;
+            }
+            Object innerElement = concurrent ? getOrCreate(sourceMap, segment) : sourceMap.get(segment.key);
+            if (segment.type == Type.KEY) {
+                if (innerElement instanceof Map) {
+                    apply(step.child, (Map) innerElement, values, concurrent);
+                } else if (null == innerElement) {
+                    Map newMap = new HashMap<>();
+                    sourceMap.put(segment.key, newMap);
+                    apply(step.child, newMap, values, concurrent);
+                } else {
+                    throw new MapUtilsException(segment.key + " is not a Map. Its object type is " + innerElement.getClass().getName() + ". At this time only maps and lists are supported.");
+                }
+            } else if (innerElement instanceof List) {
+                apply(step, (List) innerElement, values, concurrent);
+            } else if (null == innerElement) {
+                List newList = new LinkedList<>();
+                sourceMap.put(segment.key, newList);
+                apply(step, newList, values, concurrent);
+            } else {
+                throw new MapUtilsException(step.processPath + " is not a list. Its object type is " + innerElement.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * @return the element of the segment in the map, a new concurrent map or list if the map does not have it yet
+     */
+    private static Object getOrCreate(final Map sourceMap, final Segment segment) {
+        if (sourceMap instanceof ConcurrentMap) {
+            return ((ConcurrentMap) sourceMap).computeIfAbsent(segment.key, key -> newElement(segment));
+        }
+        Object innerElement = sourceMap.get(segment.key);
+        if (null == innerElement) {
+            innerElement = newElement(segment);
+            sourceMap.put(segment.key, innerElement);
+        }
+        return innerElement;
+    }
+
+    private static Object newElement(final Segment segment) {
+        return segment.type == Type.KEY ? new ConcurrentHashMap<>() : new CopyOnWriteArrayList<>();
+    }
+
+    private static void apply(final Step step, final List sourceList, final Object[] values, final boolean concurrent) {
+        Segment segment = step.segment;
+        boolean terminal = step.isTerminal();
+        Object fieldValue = terminal ? values[step.valueIndex] : null;
+        switch (segment.type) {
+            case FILTER:
+                int[] candidates = sourceList instanceof MapIndex ? ((MapIndex) sourceList).candidates(segment) : null;
+                if (null != candidates) {
+                    for (int candidate : candidates) {
+                        applyFiltered(step, sourceList.get(candidate), fieldValue, values, concurrent);
+                    }
+                } else {
+                    for (Object currentElement : sourceList) {
+                        applyFiltered(step, currentElement, fieldValue, values, concurrent);
+                    }
+                }
+                break;
+            case INDEX:
+                if (terminal) {
+                    // like the open ended list, a value at the end of the path is added to the list
+                    sourceList.add(fieldValue);
+                } else if (concurrent) {
+                    Map element;
+                    synchronized (sourceList) {
+                        element = indexElement(sourceList, segment.index, true);
+                    }
+                    apply(step.child, element, values, true);
+                } else {
+                    apply(step.child, indexElement(sourceList, segment.index, false), values, false);
+                }
+                break;
+            case FIRST:
+                if (terminal) {
+                    // a null value is not added to the list
+                    if (null != fieldValue) {
+                        sourceList.add(fieldValue);
+                    }
+                } else if (concurrent) {
+                    Map element;
+                    synchronized (sourceList) {
+                        element = firstElement(sourceList, true);
+                    }
+                    apply(step.child, element, values, true);
+                } else {
+                    apply(step.child, firstElement(sourceList, false), values, false);
+                }
+                break;
+            default:
+                throw new MapUtilsException(segment.error);
+        }
+        if (sourceList instanceof MapIndex && !terminal && isIndexed((MapIndex) sourceList, step.child.keys)) {
+            // an indexed field of an element may have been changed
+            ((MapIndex) sourceList).invalidate();
+        }
+    }
+
+    /**
+     * @return the map at the position of the list, the list is filled with new maps up to the position
+     */
+    private static Map indexElement(final List sourceList, final int listLocation, final boolean concurrent) {
+        while (sourceList.size() <= listLocation) {
+            sourceList.add(concurrent ? new ConcurrentHashMap() : new HashMap());
+        }
+        if (null == sourceList.get(listLocation)) {
+            sourceList.set(listLocation, concurrent ? new ConcurrentHashMap() : new HashMap());
+        }
+        return (Map) sourceList.get(listLocation);
+    }
+
+    /**
+     * @return the first map of the list, a new map is inserted when the list is empty or starts with null
+     */
+    private static Map firstElement(final List sourceList, final boolean concurrent) {
+        if (sourceList.isEmpty() || null == sourceList.get(0)) {
+            sourceList.add(0, concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+        }
+        return (Map) sourceList.get(0);
+    }
+
+    private static void applyFiltered(final Step step, final Object currentElement, final Object fieldValue, final Object[] values,
+                                      final boolean concurrent) {
+        if (step.segment.matchesText(currentElement)) {
+            if (step.isTerminal() && null == fieldValue) {
+                throw new MapUtilsException(step.processPath + ": Found the element in this path, but removing elements from a list is not supported.");
+            } else if (step.isTerminal()) {
+                throw new MapUtilsException(step.processPath + ": Found the element in this path, but to assign the value, we also need a key.");
+            } else {
+                apply(step.child, (Map) currentElement, values, concurrent);
+            }
+        }
+    }
+
+    private static boolean isIndexed(final MapIndex mapIndex, final String[] keys) {
+        for (String key : keys) {
+            if (mapIndex.isIndexed(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.javatools.maputils.helpers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread safe cache with an upper bound on the number of entries, used to keep parsed paths around.
+ * <pre>
+ *     Lookups of an existing entry are lock free and do not allocate.
+ *     When the cache is full it is cleared, so a burst of one-off keys can not grow it without bound
+ *     and the keys that are still in use are loaded again on their next lookup.
+ * </pre>
+ *
+ * @param <K> type of the key
+ * @param <V> type of the cached value
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Function<K, V> loader;
+    private final Map<K, V> entries;
+
+    /**
+     * @param maxSize maximum number of entries that are kept in the cache
+     * @param loader  creates the value for a key that is not in the cache, it should not return null
+     */
+    public BoundedCache(final int maxSize, final Function<K, V> loader) {
+        if (maxSize <= 0 || null == loader) {
+            throw new MapUtilsException("Not a valid input, maxSize should be positive and loader is mandatory.");
+        }
+        this.maxSize = maxSize;
+        this.loader = loader;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param key key to look up, should not be null
+     * @return cached value of the key, loads the value if it is not in the cache yet.
+     */
+    public V get(final K key) {
+        V value = entries.get(key);
+        if (null == value) {
+            value = loader.apply(key);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return number of entries that are currently in the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the entries from the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -5,29 +5,59 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_ENUMS_USING_TO_STRING;
 
 public class Constants {
-    public static final ObjectMapper jsonMapper = new ObjectMapper();
-    public static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-
-    static {
-        jsonMapper.enable(JsonParser.Feature.ALLOW_COMMENTS);
-        jsonMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        jsonMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        jsonMapper.enable(WRITE_ENUMS_USING_TO_STRING);
-        jsonMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        jsonMapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
-        jsonMapper.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-
-        yamlMapper.enable(JsonParser.Feature.ALLOW_COMMENTS);
-        yamlMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-        yamlMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        yamlMapper.enable(WRITE_ENUMS_USING_TO_STRING);
-        yamlMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        yamlMapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
-        yamlMapper.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+    public static final ObjectMapper jsonMapper = configure(new ObjectMapper());
+
+    /*
+     * The mappers of the other formats are created the first time they are used, a holder class is initialized
+     * only when its mapper is read, so the YAML and binary libraries are not loaded by the applications that only use json.
+     */
+    private static final class YamlHolder {
+        private static final ObjectMapper MAPPER = configure(new ObjectMapper(new YAMLFactory()));
+    }
+
+    private static final class CborHolder {
+        private static final ObjectMapper MAPPER = configure(new ObjectMapper(new CBORFactory()));
+    }
+
+    private static final class SmileHolder {
+        private static final ObjectMapper MAPPER = configure(new ObjectMapper(new SmileFactory()));
+    }
+
+    /**
+     * @param format format of the content, AUTO needs to be detected first
+     * @return mapper of the format, created on the first call for the format
+     */
+    public static ObjectMapper getMapper(final Format format) {
+        switch (format) {
+            case JSON:
+            case NDJSON:
+                return jsonMapper;
+            case YAML:
+                return YamlHolder.MAPPER;
+            case CBOR:
+                return CborHolder.MAPPER;
+            case SMILE:
+                return SmileHolder.MAPPER;
+            default:
+                throw new MapUtilsException("The format needs to be detected first: " + format);
+        }
+    }
+
+    private static ObjectMapper configure(final ObjectMapper mapper) {
+        mapper.enable(JsonParser.Feature.ALLOW_COMMENTS);
+        mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.enable(WRITE_ENUMS_USING_TO_STRING);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
+        mapper.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+        return mapper;
     }
 }
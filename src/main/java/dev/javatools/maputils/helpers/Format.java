@@ -1,5 +1,83 @@
 package dev.javatools.maputils.helpers;
 
 public enum Format {
-    JSON, YAML;
+    JSON, YAML,
+    /**
+     * Newline delimited json, one json object per line, see MapCreator.stream
+     */
+    NDJSON,
+    /**
+     * Concise Binary Object Representation (RFC 8949), binary json
+     */
+    CBOR,
+    /**
+     * Smile, binary json of the Jackson project
+     */
+    SMILE,
+    /**
+     * The format is detected from the first bytes of the content, see {@link #detect(byte[], int)}
+     */
+    AUTO;
+
+    private static final int UTF8_BOM_LENGTH = 3;
+
+    /**
+     * @return true if the content is binary, it can not be kept in a String
+     */
+    public boolean isBinary() {
+        return this == CBOR || this == SMILE;
+    }
+
+    /**
+     * Detects the format of the content from its first bytes.
+     * <pre>
+     *     SMILE    - starts with the Smile header ":)\n"
+     *     CBOR     - starts with the self describe tag 0xD9D9F7 or with a map (0xA0 to 0xBF),
+     *                those bytes can not start a UTF-8 text
+     *     JSON     - starts with '{', '[' or a comment '/', after the byte order mark and the white space
+     *     YAML     - any other content
+     * </pre>
+     *
+     * @param bytes  first bytes of the content
+     * @param length number of bytes that are available
+     * @return format of the content
+     */
+    public static Format detect(final byte[] bytes, final int length) {
+        if (length >= 3 && bytes[0] == ':' && bytes[1] == ')' && bytes[2] == '\n') {
+            return SMILE;
+        }
+        if (length >= 1) {
+            int first = bytes[0] & 0xFF;
+            if (first >= 0xA0 && first <= 0xBF
+                    || length >= 3 && first == 0xD9 && (bytes[1] & 0xFF) == 0xD9 && (bytes[2] & 0xFF) == 0xF7) {
+                return CBOR;
+            }
+        }
+        int position = length >= UTF8_BOM_LENGTH && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF
+                ? UTF8_BOM_LENGTH : 0;
+        while (position < length && Character.isWhitespace(bytes[position])) {
+            position++;
+        }
+        if (position < length && (bytes[position] == '{' || bytes[position] == '[' || bytes[position] == '/')) {
+            return JSON;
+        }
+        return YAML;
+    }
+
+    /**
+     * Same as {@link #detect(byte[], int)} for content that is already a String, that can only be JSON or YAML.
+     *
+     * @param text content
+     * @return JSON or YAML
+     */
+    public static Format detect(final String text) {
+        int position = !text.isEmpty() && text.charAt(0) == '\uFEFF' ? 1 : 0;
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        if (position < text.length() && (text.charAt(position) == '{' || text.charAt(position) == '[' || text.charAt(position) == '/')) {
+            return JSON;
+        }
+        return YAML;
+    }
 }
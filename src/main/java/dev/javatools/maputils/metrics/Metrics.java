@@ -0,0 +1,117 @@
+package dev.javatools.maputils.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Entry point of the measurements of the operations, there is one listener for the whole application.
+ * <pre>
+ *     Example:
+ *          MetricsRecorder recorder = new MetricsRecorder();
+ *          Metrics.register(recorder);
+ *          ...
+ *          recorder.getCount(Operation.SORT);
+ *
+ *     When no listener is registered an operation only reads the listener field once, the time is not even read.
+ *     Operations that use other operations are recorded as well, MapProperties.getProperties records PROPERTIES and SORT.
+ * </pre>
+ */
+public final class Metrics {
+
+    /**
+     * Start value of an operation that is not measured.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile MetricsListener listener;
+
+    private Metrics() {
+    }
+
+    /**
+     * @param metricsListener listener that receives all the measurements from now on, it replaces the current listener
+     */
+    public static void register(final MetricsListener metricsListener) {
+        listener = metricsListener;
+    }
+
+    /**
+     * Stops the measurements.
+     */
+    public static void unregister() {
+        listener = null;
+    }
+
+    /**
+     * @return the registered listener, null if there is none
+     */
+    public static MetricsListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Called by the operations when they start.
+     *
+     * @return start time of the operation, DISABLED when no listener is registered
+     */
+    public static long start() {
+        return null == listener ? DISABLED : System.nanoTime();
+    }
+
+    /**
+     * Called by the operations when they finish.
+     *
+     * @param operation operation that finished
+     * @param start     value that {@link #start()} returned
+     * @param tree      map that the operation returned, its nodes and depth are measured if the listener needs them,
+     *                  null for the operations that change or only read a map of the caller
+     */
+    public static void stop(final Operation operation, final long start, final Object tree) {
+        if (start == DISABLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        MetricsListener current = listener;
+        if (null == current) {
+            return;
+        }
+        if (null != tree && current.measuresTrees()) {
+            int[] size = measure(tree);
+            current.record(operation, nanos, size[0], size[1]);
+        } else {
+            current.record(operation, nanos, -1, -1);
+        }
+    }
+
+    /**
+     * @return number of nodes and depth of the tree, without recursion so that deep trees can be measured as well
+     */
+    private static int[] measure(final Object tree) {
+        int nodes = 0;
+        int depth = 0;
+        Deque<Object> elements = new ArrayDeque<>();
+        Deque<Integer> levels = new ArrayDeque<>();
+        elements.push(tree);
+        levels.push(1);
+        while (!elements.isEmpty()) {
+            Object element = elements.pop();
+            int level = levels.pop();
+            nodes++;
+            Collection<?> children = element instanceof Map ? ((Map<?, ?>) element).values()
+                    : element instanceof Collection ? (Collection<?>) element : null;
+            if (null == children) {
+                continue;
+            }
+            depth = Math.max(depth, level);
+            for (Object child : children) {
+                if (null != child) {
+                    elements.push(child);
+                    levels.push(level + 1);
+                }
+            }
+        }
+        return new int[]{nodes, depth};
+    }
+}
@@ -0,0 +1,29 @@
+package dev.javatools.maputils.metrics;
+
+/**
+ * Receives the measurements of the operations, register it with {@link Metrics#register(MetricsListener)}.
+ * <pre>
+ *     The listener is called on the thread that ran the operation, right after the operation, so it should be fast and thread safe.
+ *     An operation that throws an exception is not recorded.
+ * </pre>
+ */
+public interface MetricsListener {
+
+    /**
+     * @param operation operation that finished
+     * @param nanos     time the operation took, in nanoseconds
+     * @param nodes     maps, lists and values in the map of the operation, -1 when the trees are not measured or the operation has no tree
+     * @param depth     levels of maps and lists in the map of the operation, the root map is level 1, -1 when the trees are not measured or the operation has no tree
+     */
+    void record(Operation operation, long nanos, int nodes, int depth);
+
+    /**
+     * Measuring a tree walks the whole map once more, so only the time is measured unless this returns true.
+     * Only the maps that CREATE, SORT and PROPERTIES return are measured, UPDATE and COMPARE never walk the maps again.
+     *
+     * @return true if the nodes and the depth of the maps need to be measured
+     */
+    default boolean measuresTrees() {
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package dev.javatools.maputils.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener that keeps the measurements in memory, in counters that many threads can update without waiting for each other.
+ * <pre>
+ *     For each operation it keeps
+ *          count       - number of operations
+ *          totalNanos  - time of all the operations
+ *          latency     - histogram of the time of an operation, in nanoseconds
+ *          nodes       - histogram of the nodes of the maps, only when the trees are measured
+ *          depth       - histogram of the depth of the maps, only when the trees are measured
+ *     The histograms have 64 buckets of powers of two, bucket 0 counts the value 0 and bucket i counts the values
+ *     from 2^(i-1) to 2^i - 1, for example the latencies from 512 to 1023 nanoseconds are in bucket 10.
+ *     Read the values at any time to export them, the values of the operations that are running may or may not be included.
+ * </pre>
+ */
+public final class MetricsRecorder implements MetricsListener {
+
+    public static final int BUCKETS = 64;
+
+    /**
+     * Counters of one operation.
+     */
+    private static final class Counters {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] latency = buckets();
+        private final LongAdder[] nodes = buckets();
+        private final LongAdder[] depth = buckets();
+
+        private static LongAdder[] buckets() {
+            LongAdder[] buckets = new LongAdder[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+            return buckets;
+        }
+    }
+
+    private final boolean measureTrees;
+    private final Map<Operation, Counters> counters = new EnumMap<>(Operation.class);
+
+    /**
+     * Recorder that only measures the time of the operations.
+     */
+    public MetricsRecorder() {
+        this(false);
+    }
+
+    /**
+     * @param measureTrees true to measure the maps of CREATE, SORT and PROPERTIES as well, false to only measure the time,
+     *                     then the node and depth histograms stay empty
+     */
+    public MetricsRecorder(final boolean measureTrees) {
+        this.measureTrees = measureTrees;
+        for (Operation operation : Operation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    @Override
+    public void record(final Operation operation, final long nanos, final int nodes, final int depth) {
+        Counters operationCounters = counters.get(operation);
+        operationCounters.count.increment();
+        operationCounters.totalNanos.add(nanos);
+        operationCounters.latency[bucket(nanos)].increment();
+        if (nodes >= 0) {
+            operationCounters.nodes[bucket(nodes)].increment();
+            operationCounters.depth[bucket(depth)].increment();
+        }
+    }
+
+    @Override
+    public boolean measuresTrees() {
+        return measureTrees;
+    }
+
+    /**
+     * @param value measured value
+     * @return bucket of the histograms that counts the value
+     */
+    public static int bucket(final long value) {
+        return value <= 0 ? 0 : Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * @return number of times the operation ran
+     */
+    public long getCount(final Operation operation) {
+        return counters.get(operation).count.sum();
+    }
+
+    /**
+     * @return time of all the runs of the operation, in nanoseconds
+     */
+    public long getTotalNanos(final Operation operation) {
+        return counters.get(operation).totalNanos.sum();
+    }
+
+    /**
+     * @return number of runs of the operation in each bucket of latency
+     */
+    public long[] getLatencyHistogram(final Operation operation) {
+        return sums(counters.get(operation).latency);
+    }
+
+    /**
+     * @return number of runs of the operation in each bucket of the nodes of the map
+     */
+    public long[] getNodeHistogram(final Operation operation) {
+        return sums(counters.get(operation).nodes);
+    }
+
+    /**
+     * @return number of runs of the operation in each bucket of the depth of the map
+     */
+    public long[] getDepthHistogram(final Operation operation) {
+        return sums(counters.get(operation).depth);
+    }
+
+    /**
+     * Sets all the counters back to zero.
+     */
+    public void reset() {
+        for (Counters operationCounters : counters.values()) {
+            operationCounters.count.reset();
+            operationCounters.totalNanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                operationCounters.latency[i].reset();
+                operationCounters.nodes[i].reset();
+                operationCounters.depth[i].reset();
+            }
+        }
+    }
+
+    private static long[] sums(final LongAdder[] buckets) {
+        long[] sums = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            sums[i] = buckets[i].sum();
+        }
+        return sums;
+    }
+}
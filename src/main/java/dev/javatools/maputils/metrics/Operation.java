@@ -0,0 +1,15 @@
+package dev.javatools.maputils.metrics;
+
+/**
+ * Operations that are measured, see {@link Metrics}.
+ * <pre>
+ *     SORT         - MapSort.getSortedMap
+ *     PROPERTIES   - MapProperties.getProperties, getCompactProperties
+ *     COMPARE      - MapCompare.equal, diff
+ *     UPDATE       - MapUpdate.set, setConcurrent, setAll, with and UpdatePlan.set, setConcurrent
+ *     CREATE       - MapCreator.create
+ * </pre>
+ */
+public enum Operation {
+    SORT, PROPERTIES, COMPARE, UPDATE, CREATE
+}
@@ -7,8 +7,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -39,4 +43,71 @@ class MapCompareTest {
         assertTrue(MapCompare.equal(sampleInput, sameAsSampleInput));
         assertFalse(MapCompare.equal(sampleInput, notSameAsSampleInput));
     }
-}
\ No newline at end of file
+
+    @Test
+    void equalStructure() {
+        Map left = new HashMap<>();
+        left.put("count", 5L);
+        left.put("empty", new HashMap<>());
+        left.put("tags", List.of("a", "b", "a"));
+        left.put("members", List.of(Map.of("name", "John"), Map.of("name", "Bob", "age", 18)));
+        Map right = new HashMap<>();
+        right.put("count", 5);
+        right.put("missing", null);
+        right.put("tags", List.of("b", "a"));
+        right.put("members", List.of(Map.of("name", "Bob", "age", 18), Map.of("name", "John")));
+        assertTrue(MapCompare.equal(left, right));
+        right.put("members", List.of(Map.of("name", "Bob", "age", 19), Map.of("name", "John")));
+        assertFalse(MapCompare.equal(left, right));
+        assertFalse(MapCompare.equal(left, null));
+        assertTrue(MapCompare.equal(null, null));
+    }
+
+    @Test
+    void equalParallel() {
+        Map left = new HashMap<>();
+        Map right = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            left.put("field" + i, Map.of("value", i));
+            right.put("field" + i, Map.of("value", i));
+        }
+        assertTrue(MapCompare.equal(left, right, true));
+        right.put("field4000", Map.of("value", -1));
+        assertFalse(MapCompare.equal(left, right, true));
+        right.remove("field4000");
+        assertFalse(MapCompare.equal(left, right, true));
+        assertTrue(MapCompare.equal(sampleInput, sameAsSampleInput, true));
+        assertFalse(MapCompare.equal(sampleInput, notSameAsSampleInput, true));
+    }
+
+    @Test
+    void diff() {
+        assertTrue(MapCompare.diff(sampleInput, sameAsSampleInput).isEmpty());
+        MapDiff mapDiff = MapCompare.diff(sampleInput, notSameAsSampleInput);
+        assertEquals(2, mapDiff.getDifferences().size());
+        assertEquals(1, mapDiff.getRemoved().size());
+        assertEquals(1, mapDiff.getAdded().size());
+        assertTrue(mapDiff.getRemoved().iterator().next().startsWith("associatedAddresses["));
+        assertTrue(mapDiff.getAdded().iterator().next().startsWith("associatedAddresses["));
+    }
+
+    @Test
+    void diffFields() {
+        Map left = new HashMap<>();
+        left.put("name", "James Butt");
+        left.put("age", 25);
+        left.put("primaryAddress", new HashMap<>(Map.of("city", "New Orleans", "state", "LA")));
+        left.put("tags", List.of("a", "b"));
+        Map right = new HashMap<>();
+        right.put("name", "James Butt");
+        right.put("age", 26L);
+        right.put("primaryAddress", new HashMap<>(Map.of("city", "Irving", "zip", "75062")));
+        right.put("tags", List.of("c", "a"));
+        right.put("spouse", Map.of("name", "Art Venere"));
+        MapDiff mapDiff = MapCompare.diff(left, right);
+        assertEquals(Set.of("age", "primaryAddress.city"), mapDiff.getChanged());
+        assertEquals(Set.of("primaryAddress.state", "tags[1]"), mapDiff.getRemoved());
+        assertEquals(Set.of("primaryAddress.zip", "tags[0]", "spouse"), mapDiff.getAdded());
+        assertEquals(MapCompare.equal(left, right), mapDiff.isEmpty());
+    }
+}
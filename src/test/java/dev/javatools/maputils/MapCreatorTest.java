@@ -3,17 +3,30 @@ package dev.javatools.maputils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import dev.javatools.maputils.helpers.Constants;
 import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
 import dev.javatools.maputils.model.Person;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class MapCreatorTest {
@@ -71,13 +84,15 @@ class MapCreatorTest {
     @Test
     void testCreateWithYamlFile() throws JsonProcessingException {
         Map response = MapCreator.create(yamlInputFile, Format.YAML);
-        assertEquals(expectedYamlFileOutput, Constants.yamlMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        assertEquals(expectedYamlFileOutput, Constants.getMapper(Format.YAML).writerWithDefaultPrettyPrinter().writeValueAsString(response));
     }
 
     @Test
     void testCreateWithYamlString() throws JsonProcessingException {
         Map response = MapCreator.create(sampleYamlInput, Format.YAML);
-        assertEquals(expectedYamlFileOutput, Constants.yamlMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        assertEquals(expectedYamlFileOutput, Constants.getMapper(Format.YAML).writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        // without a format the content is read as yaml
+        assertEquals(response, MapCreator.create(sampleYamlInput, null));
     }
 
     @Test
@@ -89,7 +104,146 @@ class MapCreatorTest {
     @Test
     void testCreateWithObjectYaml() throws JsonProcessingException {
         Map response = MapCreator.create(person);
-        assertEquals(expectedYamlModelOutput, Constants.yamlMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response));
+        assertEquals(expectedYamlModelOutput, Constants.getMapper(Format.YAML).writerWithDefaultPrettyPrinter().writeValueAsString(response));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testCreateWithObjectCollection() throws JsonProcessingException {
+        List<Map> response = MapCreator.create(List.of(person, person.getFriends().get(0)));
+        assertEquals(2, response.size());
+        assertEquals(expectedJsonModelOutput, Constants.jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(response.get(0)));
+        assertEquals(MapCreator.create(person.getFriends().get(0)), response.get(1));
+    }
+
+    @Test
+    void testCreateWithNull() {
+        assertNull(MapCreator.create(null));
+        assertNull(MapCreator.create((Object) null));
+        assertNull(MapCreator.create((Collection<?>) null));
+    }
+
+    @Test
+    void testCreateWithObjectSameAsJson() throws JsonProcessingException {
+        Map response = MapCreator.create(person);
+        Map expected = Constants.jsonMapper.readValue(Constants.jsonMapper.writeValueAsString(person), Map.class);
+        assertEquals(expected, response);
+    }
+
+    @Test
+    void testStreamNdjson() throws IOException {
+        Path input = Files.createTempFile("map-creator-test", ".ndjson");
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < 50_000; i++) {
+                lines.append("{\"id\": ").append(i).append(", \"name\": \"Person ").append(i).append("\", \"score\": 1.5}\n");
+                if (i % 1000 == 0) {
+                    lines.append('\n');
+                }
+            }
+            lines.append("{\"id\": 50000, \"tags\": [\"last\"]}");
+            Files.writeString(input, lines.toString());
+
+            List<Map> sequential;
+            try (Stream<Map> stream = MapCreator.stream(input, Format.NDJSON)) {
+                sequential = stream.collect(Collectors.toList());
+            }
+            assertEquals(50_001, sequential.size());
+            assertEquals(Map.of("id", 7, "name", "Person 7", "score", new BigDecimal("1.5")), sequential.get(7));
+            assertEquals(List.of("last"), sequential.get(50_000).get("tags"));
+
+            try (Stream<Map> stream = MapCreator.stream(input, Format.NDJSON)) {
+                assertEquals(sequential, stream.parallel().collect(Collectors.toList()));
+            }
+            assertThrows(MapUtilsException.class, () -> MapCreator.create(input.toFile(), Format.NDJSON));
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    @Test
+    void testStreamJson() {
+        try (Stream<Map> stream = MapCreator.stream(jsonInputFile.toPath(), Format.JSON)) {
+            assertEquals(List.of(MapCreator.create(jsonInputFile, Format.JSON)), stream.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testBinaryFormats() throws IOException {
+        Map expected = MapCreator.create(sampleJsonInput, Format.JSON);
+        for (Format format : List.of(Format.CBOR, Format.SMILE)) {
+            byte[] content = MapCreator.toBytes(expected, format);
+            assertEquals(expected, MapCreator.create(content, format));
+            assertEquals(expected, MapCreator.create(content, Format.AUTO));
+            Path output = Files.createTempFile("map-creator-test", "." + format.name().toLowerCase());
+            try {
+                MapCreator.write(expected, output.toFile(), format);
+                assertEquals(expected, MapCreator.create(output.toFile(), format));
+                assertEquals(expected, MapCreator.create(output.toFile(), Format.AUTO));
+            } finally {
+                Files.delete(output);
+            }
+        }
+        assertThrows(MapUtilsException.class, () -> MapCreator.create(sampleJsonInput, Format.CBOR));
+        assertThrows(MapUtilsException.class, () -> MapCreator.toBytes(expected, Format.AUTO));
+    }
+
+    @Test
+    void testAutoFormat() {
+        assertEquals(MapCreator.create(sampleJsonInput, Format.JSON), MapCreator.create("\n  " + sampleJsonInput, Format.AUTO));
+        assertEquals(MapCreator.create(jsonInputFile, Format.JSON), MapCreator.create(jsonInputFile, Format.AUTO));
+        assertEquals(Format.SMILE, Format.detect(new byte[]{':', ')', '\n', 0x05}, 4));
+        assertEquals(Format.CBOR, Format.detect(new byte[]{(byte) 0xA1, 0x61, 0x61, 0x01}, 4));
+        assertEquals(Format.CBOR, Format.detect(new byte[]{(byte) 0xD9, (byte) 0xD9, (byte) 0xF7, (byte) 0xA0}, 4));
+        assertEquals(Format.JSON, Format.detect(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, ' ', '{'}, 5));
+        assertEquals(Format.JSON, Format.detect("// comment\n{}"));
+        assertEquals(Format.YAML, Format.detect("name: James Butt".getBytes(), 16));
+        assertEquals(Format.YAML, Format.detect(new byte[0], 0));
+        assertEquals(Format.YAML, Format.detect(sampleYamlInput));
+    }
+
+    @Test
+    void testCreateAll() throws IOException {
+        Path directory = Files.createTempDirectory("map-creator-test");
+        try {
+            List<Path> inputs = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Path input = directory.resolve("file" + i + ".json");
+                Files.writeString(input, i == 42 ? "{\"broken\": " : "{\"id\": " + i + "}");
+                inputs.add(input);
+            }
+            inputs.add(directory.resolve("missing.json"));
+            List<CreateResult> results = MapCreator.createAll(inputs, Format.AUTO);
+            assertEquals(101, results.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(inputs.get(i), results.get(i).getPath());
+                assertEquals(i != 42, results.get(i).isSuccess());
+            }
+            assertEquals(7, results.get(7).getMap().get("id"));
+            assertNull(results.get(42).getMap());
+            assertNotNull(results.get(100).getError());
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                List<CreateResult> executorResults = MapCreator.createAll(inputs, Format.JSON, executor, 2);
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals(results.get(i).getMap(), executorResults.get(i).getMap());
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(MapCreator.createAll(List.of(), Format.JSON).isEmpty());
+            assertThrows(MapUtilsException.class, () -> MapCreator.createAll(inputs, Format.JSON, null, 0));
+            // an interrupted caller stops waiting and keeps its interrupt status
+            Thread.currentThread().interrupt();
+            assertThrows(MapUtilsException.class, () -> MapCreator.createAll(inputs, Format.JSON));
+            assertTrue(Thread.interrupted());
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+}
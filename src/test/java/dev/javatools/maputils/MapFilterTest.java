@@ -1,4 +1,153 @@
 package dev.javatools.maputils;
 
+import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class MapFilterTest {
+    private ClassLoader classLoader = getClass().getClassLoader();
+    private List<Map> friends;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path yamlSampleInputFilePath = Path.of(classLoader.getResource("mapFilter/sample-input.yml").getPath());
+        String sampleYamlInput = Files.readString(yamlSampleInputFilePath);
+        Map inputMap = MapCreator.create(sampleYamlInput, Format.YAML);
+        friends = (List<Map>) inputMap.get("friends");
+    }
+
+    @Test
+    void filterTest() {
+        List<Map> results = new MapFilter().filter(Map.of("name", "Art Venere"), friends);
+        assertEquals(1, results.size());
+        assertEquals(28, results.get(0).get("age"));
+
+        results = new MapFilter().filter(Map.of("age", Map.of("gte", 28, "lt", 96)), friends);
+        assertEquals(2, results.size());
+        assertEquals("Art Venere", results.get(0).get("name"));
+        assertEquals("Donette Foller", results.get(1).get("name"));
+
+        results = new MapFilter().filter(Map.of("primaryAddress.state", List.of("SD", "NY", "CA")), friends);
+        assertEquals(2, results.size());
+        assertEquals("Josephine Darakjy", results.get(0).get("name"));
+        assertEquals("Donette Foller", results.get(1).get("name"));
+
+        results = new MapFilter().filter(Map.of("dateOfBirth", Map.of("lt", "1990-01-01")), friends);
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    void filterNumbersTest() {
+        assertEquals(1, new MapFilter().filter(Map.of("age", 28L), friends, false).size());
+        assertEquals(1, new MapFilter().filter(Map.of("age", new BigDecimal("28.0")), friends, false).size());
+        assertEquals(1, new MapFilter().filter(Map.of("age", Map.of("in", List.of(28.0, 1000))), friends, false).size());
+        assertEquals(3, new MapFilter().filter(Map.of("age", Map.of("ne", 28)), friends, false).size());
+    }
+
+    @Test
+    void compileCacheTest() {
+        Map<String, Object> filter = new HashMap<>(Map.of("age", new HashMap<>(Map.of("gte", 28))));
+        CompiledFilter compiled = MapFilter.compile(filter);
+        assertTrue(compiled == MapFilter.compile(Map.of("age", Map.of("gte", 28))));
+        assertEquals(3, new MapFilter().filter(filter, friends).size());
+        // a filter that is changed after it was used is compiled again
+        ((Map) filter.get("age")).put("gte", 1000);
+        assertEquals(0, new MapFilter().filter(filter, friends).size());
+        assertEquals(3, compiled.filter(friends).size());
+    }
+
+    @Test
+    void filterMixedTypesTest() {
+        List<Map> people = List.of(Map.of("age", "abc"), Map.of("age", true), Map.of("age", Map.of("years", 20)),
+                Map.of("age", List.of(20)), Map.of("age", 20));
+        Map<String, Integer> numberMatches = Map.of("gt", 0, "gte", 1, "lt", 0, "lte", 1);
+        Map<String, Integer> stringMatches = Map.of("gt", 0, "gte", 0, "lt", 1, "lte", 1);
+        numberMatches.forEach((operator, expected) -> {
+            List<Map> results = MapFilter.compile(Map.of("age", Map.of(operator, 20))).filter(people);
+            assertEquals((int) expected, results.size(), operator);
+            assertTrue(results.stream().allMatch(person -> Integer.valueOf(20).equals(person.get("age"))), operator);
+        });
+        stringMatches.forEach((operator, expected) -> {
+            List<Map> results = MapFilter.compile(Map.of("age", Map.of(operator, "b"))).filter(people);
+            assertEquals((int) expected, results.size(), operator);
+            assertTrue(results.stream().allMatch(person -> "abc".equals(person.get("age"))), operator);
+        });
+    }
+
+    @Test
+    void filterInRoundNumbersTest() {
+        List<Map> people = List.of(Map.of("age", 100), Map.of("age", new BigDecimal("100.0")), Map.of("age", 101));
+        assertEquals(2, MapFilter.compile(Map.of("age", List.of(new BigDecimal("100.0")))).filter(people).size());
+        assertEquals(2, MapFilter.compile(Map.of("age", Map.of("in", List.of(100)))).filter(people).size());
+        assertEquals(2, MapFilter.compile(Map.of("age", Map.of("in", List.of(new BigDecimal("1E+2"))))).filter(people).size());
+        assertEquals(1, MapFilter.compile(Map.of("age", List.of(BigInteger.valueOf(101)))).filter(people).size());
+    }
+
+    @Test
+    void filterNonFiniteNumbersTest() {
+        List<Map> values = List.of(Map.of("value", 1), Map.of("value", 5_000_000_000L), Map.of("value", new BigDecimal("2.5")),
+                Map.of("value", Double.NaN), Map.of("value", Double.POSITIVE_INFINITY), Map.of("value", Double.NEGATIVE_INFINITY));
+        assertEquals(1, MapFilter.compile(Map.of("value", Double.NaN)).filter(values).size());
+        assertEquals(1, MapFilter.compile(Map.of("value", 1)).filter(values).size());
+        // NaN is larger than every number, the finite numbers are between the infinities
+        assertEquals(5, MapFilter.compile(Map.of("value", Map.of("gt", 0))).filter(values).size());
+        assertEquals(2, MapFilter.compile(Map.of("value", Map.of("lt", new BigDecimal("2")))).filter(values).size());
+        assertEquals(1, MapFilter.compile(Map.of("value", Map.of("lt", 0L))).filter(values).size());
+        assertEquals(2, MapFilter.compile(Map.of("value", Map.of("gte", Double.POSITIVE_INFINITY))).filter(values).size());
+        assertEquals(5, MapFilter.compile(Map.of("value", Map.of("lte", Float.POSITIVE_INFINITY))).filter(values).size());
+        assertEquals(2, MapFilter.compile(Map.of("value", Map.of("in", List.of(Double.NaN, 1L)))).filter(values).size());
+        assertEquals(2, MapFilter.compile(Map.of("value", List.of(Double.POSITIVE_INFINITY, new BigDecimal("2.50")))).filter(values).size());
+        assertEquals(1, MapFilter.compile(Map.of("value", List.of(Float.NEGATIVE_INFINITY))).filter(values).size());
+        assertEquals(5, MapFilter.compile(Map.of("value", Map.of("ne", Double.NaN))).filter(values).size());
+    }
+
+    @Test
+    void filterExistsTest() {
+        Map filter = new HashMap();
+        filter.put("spouse", null);
+        assertEquals(4, new MapFilter().filter(filter, friends).size());
+        assertEquals(0, new MapFilter().filter(Map.of("spouse", Map.of("exists", true)), friends).size());
+        assertEquals(4, new MapFilter().filter(Map.of("associatedAddresses[0].city", Map.of("exists", true)), friends).size());
+    }
+
+    @Test
+    void compileTest() {
+        CompiledFilter filter = MapFilter.compile(Map.of("age", Map.of("gt", 50), "associatedAddresses[{state=TX}].city", "Laredo Webb"));
+        assertFalse(filter.test(friends.get(0)));
+        assertFalse(filter.test(friends.get(3)));
+
+        List<Map> source = new ArrayList<>();
+        for (int i = 0; i < 25_000; i++) {
+            source.add(Map.of("id", i, "group", i % 10));
+        }
+        CompiledFilter groups = MapFilter.compile(Map.of("group", List.of(1, 2), "id", Map.of("lt", 20_000)));
+        List<Map> sequential = groups.filter(source);
+        List<Map> parallel = groups.filter(source, true);
+        assertEquals(4_000, sequential.size());
+        assertEquals(sequential, parallel);
+        assertTrue(groups.test(source.get(1)));
+    }
+
+    @Test
+    void compileErrorTest() {
+        assertThrows(MapUtilsException.class, () -> MapFilter.compile(Map.of("age", Map.of("between", 1))));
+        assertThrows(MapUtilsException.class, () -> MapFilter.compile(Map.of("age", Map.of("in", 1))));
+        assertThrows(MapUtilsException.class, () -> MapFilter.compile(null));
+    }
 }
@@ -0,0 +1,105 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MapIndexTest {
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    private Map sampleInput;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("mapPath/sample-input.json").getPath());
+        String sampleJsonInput = Files.readString(jsonSampleInputFilePath);
+        sampleInput = MapCreator.create(sampleJsonInput, Format.JSON);
+    }
+
+    @Test
+    void getTest() {
+        Object expected = MapProperty.get("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city", sampleInput);
+        List friends = (List) sampleInput.get("friends");
+        MapIndex index = MapIndex.on(friends, "name");
+        sampleInput.put("friends", index);
+        assertSame(index, MapIndex.on(index, "age"));
+        assertEquals(friends.size(), index.size());
+        assertTrue(null != expected);
+        assertEquals(expected, MapProperty.get("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].city", sampleInput));
+        assertEquals(96, MapProperty.get("friends[{name=Lenna Paprocki}].age", sampleInput));
+        assertNull(MapProperty.get("friends[{name=Nobody}].age", sampleInput));
+        assertNull(MapProperty.get("friends[{name=Lenna Paprocki}{age=1}].age", sampleInput));
+        // only String values are equal to the filter values
+        assertNull(MapProperty.get("friends[{age=96}].name", sampleInput));
+    }
+
+    @Test
+    void getManyTest() {
+        List<Map> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Map item = new HashMap();
+            item.put("id", String.valueOf(i));
+            item.put("group", String.valueOf(i % 10));
+            items.add(item);
+        }
+        Map order = new HashMap();
+        order.put("items", MapIndex.on(items, "group", "id"));
+        assertSame(items.get(4242), MapProperty.get("items[{id=4242}{group=2}]", order));
+        assertNull(MapProperty.get("items[{id=4242}{group=3}]", order));
+        // not indexed, the list is scanned
+        assertSame(items.get(4242), MapProperty.get("items[{id=4242}]", order));
+    }
+
+    @Test
+    void updateTest() {
+        MapIndex friends = MapIndex.on((List) sampleInput.get("friends"), "name");
+        sampleInput.put("friends", friends);
+        MapUpdate.set("friends[{name=Art Venere}].age", sampleInput, 30);
+        assertEquals(30, MapProperty.get("friends[{name=Art Venere}].age", sampleInput));
+
+        MapUpdate.set("friends[{name=Art Venere}].name", sampleInput, "Art V");
+        assertNull(MapProperty.get("friends[{name=Art Venere}].age", sampleInput));
+        assertEquals(30, MapProperty.get("friends[{name=Art V}].age", sampleInput));
+
+        MapUpdate.set("friends[].name", sampleInput, "First");
+        assertEquals("First", MapProperty.get("friends[{name=First}].name", sampleInput));
+
+        friends.add(Map.of("name", "New Friend", "age", 1));
+        assertEquals(1, MapProperty.get("friends[{name=New Friend}].age", sampleInput));
+        friends.remove(friends.size() - 1);
+        assertNull(MapProperty.get("friends[{name=New Friend}].age", sampleInput));
+    }
+
+    @Test
+    void invalidateTest() {
+        List friends = (List) sampleInput.get("friends");
+        sampleInput.put("friends", MapIndex.on(friends, "name"));
+        assertEquals(28, MapProperty.get("friends[{name=Art Venere}].age", sampleInput));
+        ((Map) friends.get(1)).put("name", "Art");
+        assertNull(MapProperty.get("friends[{name=Art}].age", sampleInput));
+        ((MapIndex) sampleInput.get("friends")).invalidate();
+        assertEquals(28, MapProperty.get("friends[{name=Art}].age", sampleInput));
+        assertTrue(((MapIndex) sampleInput.get("friends")).isIndexed("name"));
+    }
+
+    @Test
+    void onErrorTest() {
+        assertThrows(MapUtilsException.class, () -> MapIndex.on(null, "id"));
+        assertThrows(MapUtilsException.class, () -> MapIndex.on(new ArrayList()));
+    }
+}
@@ -8,9 +8,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MapPathsTest {
@@ -51,4 +53,22 @@ class MapPathsTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void getUniquePathsOfManyMaps() {
+        List<Map> inputs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            inputs.add(i % 2 == 0 ? inputMap : Map.of("extra", Map.of("value", i)));
+        }
+        Set<String> paths = MapPaths.getUniquePathsOfAll(inputs);
+        assertEquals(allUniquePaths.size() + 1, paths.size());
+        assertTrue(paths.containsAll(allUniquePaths));
+        assertTrue(paths.contains("extra.value"));
+        assertEquals(paths, MapPaths.getUniquePathsOfAll(inputs.stream()));
+
+        Map<String, Long> counts = MapPaths.getUniquePathCounts(inputs);
+        assertEquals(paths, counts.keySet());
+        assertEquals(250L, (long) counts.get("extra.value"));
+        assertEquals(250L, (long) counts.get("friends[].name"));
+    }
+
+}
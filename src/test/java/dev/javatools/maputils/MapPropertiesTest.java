@@ -1,6 +1,7 @@
 package dev.javatools.maputils;
 
 import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,8 +9,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MapPropertiesTest {
@@ -39,4 +45,79 @@ class MapPropertiesTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getPropertiesOfLargeListTest() {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            skus.add(String.format("%05d", i));
+        }
+        Map properties = MapProperties.getProperties(Map.of("order", Map.of("skus", skus, "items", List.of(Map.of("sku", "00007")))));
+        assertEquals(1101, properties.size());
+        assertEquals("00000", properties.get("order.skus[0]"));
+        assertEquals("01099", properties.get("order.skus[1099]"));
+        assertEquals("00007", properties.get("order.items[0].sku"));
+    }
+
+    @Test
+    public void getCompactPropertiesTest() {
+        Map properties = MapProperties.getProperties(inputMap);
+        PropertyMap compact = MapProperties.getCompactProperties(inputMap);
+        assertEquals(properties, compact);
+        assertEquals(properties.hashCode(), compact.hashCode());
+        assertEquals(new ArrayList<>(properties.keySet()), new ArrayList<>(compact.keySet()));
+        assertEquals("New Orleans", compact.get("primaryAddress.city"));
+        assertEquals("primaryAddress.zip", compact.keyAt(compact.size() - 1));
+        assertNull(compact.get("primaryAddress"));
+        assertNull(compact.get(42));
+        assertThrows(UnsupportedOperationException.class, () -> compact.put("name", "Josephine Darakjy"));
+        assertEquals(MapProperties.toNested(properties), MapProperties.toNested(compact));
+    }
+
+    @Test
+    public void propertyMapCopyOfTest() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("b", 2);
+        properties.put("a[1]", 1);
+        properties.put("a[0]", 0);
+        PropertyMap compact = PropertyMap.copyOf(properties);
+        assertEquals(List.of("a[0]", "a[1]", "b"), new ArrayList<>(compact.keySet()));
+        assertEquals(2, compact.get("b"));
+        assertEquals(properties, compact);
+        assertTrue(PropertyMap.copyOf(Map.of()).isEmpty());
+        assertThrows(MapUtilsException.class, () -> PropertyMap.copyOf(null));
+        assertThrows(MapUtilsException.class, () -> PropertyMap.copyOf((Map) Map.of(1, "one")));
+    }
+
+    @Test
+    public void toNestedTest() {
+        Map properties = MapProperties.getProperties(inputMap);
+        Map nested = MapProperties.toNested(properties);
+        assertEquals(MapSort.getSortedMap(inputMap, null), nested);
+        assertEquals(properties, MapProperties.getProperties(nested));
+    }
+
+    @Test
+    public void toNestedOfLargeListTest() {
+        Map<String, Object> properties = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            properties.put("order.items[" + i + "].sku", String.format("%05d", i));
+        }
+        properties.put("order.matrix[1][2]", 12);
+        Map nested = MapProperties.toNested(properties);
+        List items = (List) ((Map) nested.get("order")).get("items");
+        assertEquals(12, items.size());
+        assertEquals("00011", ((Map) items.get(11)).get("sku"));
+        List matrix = (List) ((Map) nested.get("order")).get("matrix");
+        assertNull(matrix.get(0));
+        assertEquals(List.of(12), ((List) matrix.get(1)).subList(2, 3));
+    }
+
+    @Test
+    public void toNestedErrorTest() {
+        assertThrows(MapUtilsException.class, () -> MapProperties.toNested(null));
+        assertThrows(MapUtilsException.class, () -> MapProperties.toNested(Map.of("name", "James", "name.first", "James")));
+        assertThrows(MapUtilsException.class, () -> MapProperties.toNested(Map.of("[0].name", "James")));
+        assertThrows(MapUtilsException.class, () -> MapProperties.toNested(Map.of("friends[x]", "James")));
+    }
+
+}
@@ -1,15 +1,22 @@
 package dev.javatools.maputils;
 
 import dev.javatools.maputils.helpers.Format;
+import dev.javatools.maputils.helpers.MapUtilsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MapPropertyTest {
@@ -139,4 +146,74 @@ public class MapPropertyTest {
         Object value = MapProperty.get("friends[2].spouse.children.spouse.age", sampleInput);
         assertEquals(5, value);
     }
+
+    @Test
+    void compileTest_01() {
+        CompiledPath path = MapProperty.compile("friends[{name=Lenna Paprocki}].associatedAddresses[2].zip");
+        assertEquals("75062", path.get(sampleInput));
+        assertEquals("friends[{name=Lenna Paprocki}].associatedAddresses[2].zip", path.getPath());
+    }
+
+    @Test
+    void compileTest_02() {
+        String[] paths = {"name", "friends[].associatedAddresses[{state=TX}].city", "friends[3].associatedAddresses[2].city",
+                "friends[{name=Lenna Paprocki}].spouse.children.spouse.name", "friends[9].name", "unknown[].name"};
+        for (String path : paths) {
+            assertEquals(MapProperty.get(path, sampleInput), MapProperty.compile(path).get(sampleInput));
+        }
+    }
+
+    @Test
+    void compileTest_03() {
+        assertSame(MapProperty.compile("friends[].name"), MapProperty.compile("friends[].name"));
+    }
+
+    @Test
+    void compileTest_04() {
+        Map friend = (Map) ((List) sampleInput.get("friends")).get(0);
+        friend.put("title", "Dr. Who");
+        assertEquals("Josephine Darakjy", MapProperty.get("friends[{title=Dr. Who}].name", sampleInput));
+    }
+
+    @Test
+    void compileTest_05() {
+        CompiledPath path = MapProperty.compile("friends[abc].name");
+        assertNull(path.get(new HashMap()));
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> path.get(sampleInput));
+        assertEquals("wrong filter criteria on list:friends[abc]", mapUtilsException.getMessage());
+        assertThrows(MapUtilsException.class, () -> MapProperty.get("name[]", sampleInput));
+        assertThrows(MapUtilsException.class, () -> MapProperty.compile(null));
+    }
+
+    @Test
+    void projectTest() {
+        List<String> paths = List.of("name", "friends[{name=Lenna Paprocki}].age", "friends[{name=Lenna Paprocki}].associatedAddresses[2].zip",
+                "friends[].name", "primaryAddress.city", "primaryAddress.unknown", "unknown.city", "friends[{name=Lenna Paprocki}].age");
+        Map<String, Object> values = MapProperty.project(sampleInput, paths);
+        assertEquals(paths.size() - 1, values.size());
+        for (String path : paths) {
+            assertEquals(MapProperty.get(path, sampleInput), values.get(path));
+        }
+        assertEquals(96, values.get("friends[{name=Lenna Paprocki}].age"));
+        assertNull(values.get("primaryAddress.unknown"));
+
+        Projection projection = MapProperty.projection(paths);
+        assertSame(projection, MapProperty.projection(new ArrayList<>(paths)));
+        Object[] row = projection.values(sampleInput);
+        assertEquals(paths.size(), row.length);
+        assertEquals("James Butt", row[0]);
+        assertEquals(row[1], row[7]);
+        assertEquals(paths.size(), projection.values(null).length);
+    }
+
+    @Test
+    void projectErrorTest() {
+        List<String> paths = new ArrayList<>();
+        paths.add("name");
+        paths.add(null);
+        assertThrows(MapUtilsException.class, () -> MapProperty.project(sampleInput, paths));
+        assertThrows(MapUtilsException.class, () -> MapProperty.project(sampleInput, null));
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapProperty.project(sampleInput, List.of("name", "friends[abc]")));
+        assertEquals("wrong filter criteria on list:friends[abc]", mapUtilsException.getMessage());
+    }
 }
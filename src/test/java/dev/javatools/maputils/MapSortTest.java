@@ -9,8 +9,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -89,4 +93,63 @@ class MapSortTest {
         String sortedMapString = Constants.jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(sortedMap);
         assertEquals(sortedMapString, emptyArrayTestResponseString);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void customValuesTest() throws JsonProcessingException {
+        Map input = new HashMap<>();
+        input.put("count", 5L);
+        input.put("price", 10.25d);
+        input.put("missing", null);
+        input.put("tags", new HashSet<>(List.of("b", "a")));
+        input.put("codes", new HashMap<>(Map.of(2, "two", 1, "one")));
+        input.put("members", List.of(Map.of("name", "John", "age", 22L), Map.of("name", "Bob", "age", 18)));
+        Map sanitizedInput = Constants.jsonMapper.readValue(Constants.jsonMapper.writeValueAsString(input), Map.class);
+        Map<String, String> listKeys = Map.of("members[]", "name");
+        assertEquals(MapSort.getSortedMap(sanitizedInput, listKeys), MapSort.getSortedMap(input, listKeys));
+        assertEquals(Constants.jsonMapper.writeValueAsString(MapSort.getSortedMap(sanitizedInput, listKeys)),
+                Constants.jsonMapper.writeValueAsString(MapSort.getSortedMap(input, listKeys)));
+    }
+
+    @Test
+    public void parallelTest() throws JsonProcessingException {
+        List<Map> people = new ArrayList<>();
+        Map<String, Object> wide = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            Map person = new HashMap();
+            person.put("name", "Person " + i % 3000);
+            person.put("age", i % 90);
+            person.put("tags", List.of("tag" + i % 7, "tag" + i % 5));
+            person.put("addresses", List.of(Map.of("city", "City " + i % 11), Map.of("city", "City " + i % 13, "zip", i)));
+            people.add(person);
+            wide.put("field" + i, i % 3 == 0 ? List.of(i, i + 1) : Map.of("value", i));
+        }
+        Map input = new HashMap();
+        input.put("people", people);
+        input.put("wide", wide);
+        input.put("emblem", emptyArrayTestRequestMap);
+        Map<String, String> listKeys = Map.of("people[]", "name", "people[].addresses[]", "city");
+
+        Map sequential = MapSort.getSortedMap(input, listKeys);
+        Map parallel = MapSort.getSortedMap(input, listKeys, true);
+        assertEquals(sequential, parallel);
+        assertEquals(Constants.jsonMapper.writeValueAsString(sequential), Constants.jsonMapper.writeValueAsString(parallel));
+        assertEquals(Constants.jsonMapper.writeValueAsString(MapSort.getSortedMap(emptyArrayTestRequestMap, listFilters)),
+                Constants.jsonMapper.writeValueAsString(MapSort.getSortedMap(emptyArrayTestRequestMap, listFilters, true)));
+    }
+
+    @Test
+    public void multipleListKeysTest() {
+        Map input = new HashMap();
+        input.put("members", List.of(
+                Map.of("name", "John", "age", 22),
+                Map.of("name", "Bob", "age", 9),
+                Map.of("name", "Al", "age", 22),
+                Map.of("name", "Zed", "age", 100L),
+                Map.of("name", "Ann")));
+        List<Map> members = (List<Map>) MapSort.getSortedMap(input, Map.of("members[]", "age, name")).get("members");
+        assertEquals(List.of("Ann", "Bob", "Al", "John", "Zed"), members.stream().map(member -> member.get("name")).collect(Collectors.toList()));
+
+        members = (List<Map>) MapSort.getSortedMap(input, Map.of("members[]", "name")).get("members");
+        assertEquals(List.of("Al", "Ann", "Bob", "John", "Zed"), members.stream().map(member -> member.get("name")).collect(Collectors.toList()));
+    }
+}
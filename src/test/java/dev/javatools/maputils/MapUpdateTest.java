@@ -9,11 +9,17 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -171,4 +177,170 @@ class MapUpdateTest {
         MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapUpdate.set("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}]", sampleInput, "street in Irving, Texas"));
         assertEquals("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}]: Found the element in this path, but to assign the value, we also need a key.", mapUtilsException.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void setTest11() {
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapUpdate.set("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}]", sampleInput, null));
+        assertEquals("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}]: Found the element in this path, but removing elements from a list is not supported.", mapUtilsException.getMessage());
+    }
+
+    @Test
+    void compileTest01() {
+        UpdatePlan plan = MapUpdate.compile("friends[2].associatedAddresses[5].city");
+        Map first = new HashMap<>();
+        Map second = new HashMap<>();
+        plan.set(first, "San Ramon");
+        plan.set(second, "Irving");
+        assertEquals("San Ramon", MapProperty.get("friends[2].associatedAddresses[5].city", first));
+        assertEquals("Irving", MapProperty.get("friends[2].associatedAddresses[5].city", second));
+    }
+
+    @Test
+    void compileTest02() {
+        UpdatePlan plan = MapUpdate.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}].street");
+        plan.set(sampleInput, "street in Irving, Texas");
+        assertEquals("street in Irving, Texas", MapProperty.get("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].street", sampleInput));
+        assertSame(plan, MapUpdate.compile("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}, {city=Irving}].street"));
+    }
+
+    @Test
+    void compileTest03() {
+        UpdatePlan plan = MapUpdate.compile("name");
+        plan.set(sampleInput, null);
+        assertTrue(!sampleInput.containsKey("name"));
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapUpdate.compile("age.years").set(sampleInput, 1));
+        assertEquals("age is not a Map. Its object type is java.lang.Integer. At this time only maps and lists are supported.", mapUtilsException.getMessage());
+        assertThrows(MapUtilsException.class, () -> plan.set(null, 1));
+    }
+
+    @Test
+    void setAllTest() throws IOException {
+        Map updates = new LinkedHashMap();
+        updates.put("primaryAddress.city", "Irving");
+        updates.put("name", "James B");
+        updates.put("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].street", "street in Irving, Texas");
+        updates.put("primaryAddress.zip", "75063");
+        updates.put("friends[{name=Lenna Paprocki}].age", 97);
+        updates.put("friends[].hobbies[]", "chess");
+        updates.put("friends[].hobbies[1]", "golf");
+        updates.put("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].zip", "75061");
+        updates.put("spouse.name", "Jane");
+        updates.put("spouse", null);
+        updates.put("spouse.age", 40);
+        updates.put("newList[2].city", "San Ramon");
+        updates.put("newList[].state", "CA");
+        updates.put("age", null);
+
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("mapUpdate/sample-input.json").getPath());
+        Map expected = MapCreator.create(Files.readString(jsonSampleInputFilePath), Format.JSON);
+        for (Object item : updates.entrySet()) {
+            Map.Entry update = (Map.Entry) item;
+            MapUpdate.set((String) update.getKey(), expected, update.getValue());
+        }
+        MapUpdate.setAll(sampleInput, updates);
+        assertEquals(expected, sampleInput);
+        assertEquals("Irving", MapProperty.get("primaryAddress.city", sampleInput));
+        assertEquals(97, MapProperty.get("friends[{name=Lenna Paprocki}].age", sampleInput));
+        assertEquals(Map.of("age", 40), sampleInput.get("spouse"));
+    }
+
+    @Test
+    void setAllErrorTest() {
+        Map updates = new LinkedHashMap();
+        updates.put("name", "James B");
+        updates.put("age.years", 1);
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapUpdate.setAll(sampleInput, updates));
+        assertEquals("age is not a Map. Its object type is java.lang.Integer. At this time only maps and lists are supported.", mapUtilsException.getMessage());
+        assertThrows(MapUtilsException.class, () -> MapUpdate.setAll(null, updates));
+        assertThrows(MapUtilsException.class, () -> MapUpdate.setAll(sampleInput, null));
+    }
+
+    @Test
+    void withTest() throws IOException {
+        Map updates = new LinkedHashMap();
+        updates.put("primaryAddress.city", "Irving");
+        updates.put("name", "James B");
+        updates.put("friends[{name=Lenna Paprocki}].associatedAddresses[{state=TX}].street", "street in Irving, Texas");
+        updates.put("friends[].hobbies[]", "chess");
+        updates.put("friends[].hobbies[1]", "golf");
+        updates.put("spouse.name", "Jane");
+        updates.put("spouse", null);
+        updates.put("newList[2].city", "San Ramon");
+        updates.put("age", null);
+
+        Path jsonSampleInputFilePath = Path.of(classLoader.getResource("mapUpdate/sample-input.json").getPath());
+        Map original = MapCreator.create(Files.readString(jsonSampleInputFilePath), Format.JSON);
+        PersistentMap first = PersistentMap.copyOf(sampleInput);
+        PersistentMap version = first;
+        for (Object item : updates.entrySet()) {
+            Map.Entry update = (Map.Entry) item;
+            MapUpdate.set((String) update.getKey(), sampleInput, update.getValue());
+            version = MapUpdate.with((String) update.getKey(), version, update.getValue());
+        }
+        assertEquals(sampleInput, version);
+        assertEquals(original, first);
+        assertSame(first.get("dateOfBirth"), version.get("dateOfBirth"));
+
+        PersistentMap next = MapUpdate.with("primaryAddress.zip", version, "75063");
+        assertEquals("75063", MapProperty.get("primaryAddress.zip", next));
+        assertEquals("Irving", MapProperty.get("primaryAddress.city", next));
+        assertSame(version.get("friends"), next.get("friends"));
+        assertTrue(!next.equals(version));
+    }
+
+    @Test
+    void withMutableValueTest() {
+        Map address = new HashMap(Map.of("city", "Irving"));
+        List hobbies = new ArrayList(List.of("chess"));
+        PersistentMap version = MapUpdate.with("primaryAddress", PersistentMap.empty(), address);
+        version = MapUpdate.with("hobbies[]", version, hobbies);
+        address.put("city", "Dallas");
+        hobbies.add("golf");
+        assertEquals("Irving", MapProperty.get("primaryAddress.city", version));
+        assertEquals(List.of(List.of("chess")), version.get("hobbies"));
+        assertTrue(version.get("primaryAddress") instanceof PersistentMap);
+        assertTrue(((List) version.get("hobbies")).get(0) instanceof PersistentList);
+    }
+
+    @Test
+    void withErrorTest() {
+        PersistentMap version = PersistentMap.copyOf(sampleInput);
+        MapUtilsException mapUtilsException = assertThrows(MapUtilsException.class, () -> MapUpdate.with("age.years", version, 1));
+        assertEquals("age is not a Map. Its object type is java.lang.Integer. At this time only maps and lists are supported.", mapUtilsException.getMessage());
+        assertEquals(sampleInput, version);
+        assertThrows(MapUtilsException.class, () -> MapUpdate.with(null, version, 1));
+        assertThrows(MapUtilsException.class, () -> MapUpdate.with("name", null, 1));
+        assertThrows(MapUtilsException.class, () -> MapUpdate.with("friends[{name=Lenna Paprocki}]", version, null));
+        assertThrows(UnsupportedOperationException.class, () -> version.put("name", "James B"));
+    }
+
+    @Test
+    void setConcurrentTest() {
+        Map state = new ConcurrentHashMap();
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            MapUpdate.setConcurrent("sessions.s" + i % 100 + ".user" + i, state, i);
+            MapUpdate.setConcurrent("events[]", state, i);
+            MapUpdate.setConcurrent("slots[" + i % 50 + "].count" + i, state, i);
+            MapUpdate.setConcurrent("first[].last", state, i);
+        });
+        Map sessions = (Map) state.get("sessions");
+        assertEquals(100, sessions.size());
+        assertEquals(200, ((Map) sessions.get("s7")).size());
+        assertEquals(20_000, ((List) state.get("events")).size());
+        assertEquals(50, ((List) state.get("slots")).size());
+        assertEquals(400, ((Map) ((List) state.get("slots")).get(49)).size());
+        assertEquals(1, ((List) state.get("first")).size());
+        assertTrue(sessions instanceof ConcurrentHashMap);
+        assertTrue(state.get("events") instanceof CopyOnWriteArrayList);
+
+        Map expected = new HashMap();
+        Map actual = new ConcurrentHashMap();
+        for (String path : List.of("name", "friends[{name=Art Venere}].age", "friends[1].name", "friends[{name=Lenna}].age", "friends[].hobbies[]")) {
+            MapUpdate.set(path, expected, "Lenna");
+            MapUpdate.compile(path).setConcurrent(actual, "Lenna");
+        }
+        assertEquals(expected, actual);
+        assertThrows(MapUtilsException.class, () -> MapUpdate.setConcurrent("name.first", actual, 1));
+        assertThrows(MapUtilsException.class, () -> MapUpdate.setConcurrent(null, actual, 1));
+    }
+}
@@ -0,0 +1,73 @@
+package dev.javatools.maputils;
+
+import dev.javatools.maputils.helpers.MapUtilsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathSymbolsTest {
+
+    @Test
+    public void internTest() {
+        PathSymbols symbols = new PathSymbols(16);
+        String path = symbols.intern(new StringBuilder("order.items[3].sku"));
+        assertEquals("order.items[3].sku", path);
+        assertSame(path, symbols.intern(new StringBuilder("order.items[3].sku")));
+        assertSame(path, symbols.intern("order.items[3].sku"));
+        assertEquals("order.items[3].id", symbols.intern("order.items[3].id"));
+        symbols.clear();
+        assertNotSame(path, symbols.intern(new StringBuilder("order.items[3].sku")));
+    }
+
+    @Test
+    public void boundedTest() {
+        PathSymbols symbols = new PathSymbols(100);
+        assertEquals(128, symbols.capacity());
+        for (int i = 0; i < 10_000; i++) {
+            String path = "items[" + i + "].sku";
+            assertEquals(path, symbols.intern(new StringBuilder(path)));
+        }
+        assertEquals(2, new PathSymbols(1).capacity());
+        assertThrows(MapUtilsException.class, () -> new PathSymbols(0));
+    }
+
+    @Test
+    public void concurrentTest() {
+        PathSymbols symbols = new PathSymbols(64);
+        Set<String> wrong = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            String path = "items[" + i % 200 + "].sku";
+            if (!path.equals(symbols.intern(new StringBuilder(path)))) {
+                wrong.add(path);
+            }
+        });
+        assertTrue(wrong.isEmpty());
+    }
+
+    @Test
+    public void sharedPropertiesTest() {
+        PathSymbols symbols = new PathSymbols();
+        List<PropertyMap> properties = new ArrayList<>();
+        List<Set<String>> paths = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map order = Map.of("id", i, "items", List.of(Map.of("sku", "0000" + i)));
+            properties.add(MapProperties.getCompactProperties(order, symbols));
+            paths.add(MapPaths.getPaths(order, symbols));
+        }
+        assertEquals(List.of("id", "items[0].sku"), new ArrayList<>(properties.get(0).keySet()));
+        assertSame(properties.get(0).keyAt(1), properties.get(1).keyAt(1));
+        assertSame(properties.get(0).keyAt(1), new ArrayList<>(paths.get(1)).get(1));
+        assertEquals(properties.get(0).keySet(), MapPaths.getPaths(Map.of("id", 0, "items", List.of(Map.of("sku", "x")))));
+    }
+}
@@ -0,0 +1,80 @@
+package dev.javatools.maputils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentMapTest {
+
+    @Test
+    void withTest() {
+        Map<Object, Object> expected = new HashMap<>();
+        PersistentMap map = PersistentMap.empty();
+        List<PersistentMap> versions = new ArrayList<>();
+        List<Map<Object, Object>> expectedVersions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // "Aa" and "BB" have the same hash code
+            Object key = i % 10 == 0 ? (i % 20 == 0 ? "Aa" : "BB") : i % 1000 * 65536;
+            if (i % 3 == 0) {
+                expected.remove(key);
+                map = map.without(key);
+            } else {
+                expected.put(key, i);
+                map = map.with(key, i);
+            }
+            if (i % 500 == 0) {
+                versions.add(map);
+                expectedVersions.add(new HashMap<>(expected));
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expectedVersions, versions);
+        Object existing = map.keySet().iterator().next();
+        assertSame(map, map.with(existing, map.get(existing)));
+        assertSame(map, map.without("missing"));
+        assertNull(map.get("missing"));
+        assertTrue(PersistentMap.empty().with(null, 1).containsKey(null));
+    }
+
+    @Test
+    void copyOfTest() {
+        Map source = Map.of("name", "James Butt", "friends", List.of(Map.of("name", "Josephine Darakjy")));
+        PersistentMap map = PersistentMap.copyOf(source);
+        assertEquals(source, map);
+        assertTrue(map.get("friends") instanceof PersistentList);
+        assertTrue(((List) map.get("friends")).get(0) instanceof PersistentMap);
+        assertSame(map, PersistentMap.copyOf(map));
+    }
+
+    @Test
+    void listTest() {
+        List<Object> expected = new ArrayList<>();
+        PersistentList list = PersistentList.empty();
+        for (int i = 0; i < 40_000; i++) {
+            expected.add(i);
+            list = list.plus(i);
+        }
+        PersistentList previous = list;
+        for (int i = 0; i < 40_000; i += 7) {
+            expected.set(i, -i);
+            list = list.with(i, -i);
+        }
+        assertEquals(expected, list);
+        assertEquals(35_000, previous.get(35_000));
+        expected.add(0, "first");
+        assertEquals(expected, list.insert(0, "first"));
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentList.empty().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> PersistentList.empty().add("first"));
+    }
+}
@@ -0,0 +1,96 @@
+package dev.javatools.maputils.metrics;
+
+import dev.javatools.maputils.MapCompare;
+import dev.javatools.maputils.MapCreator;
+import dev.javatools.maputils.MapProperties;
+import dev.javatools.maputils.MapSort;
+import dev.javatools.maputils.MapUpdate;
+import dev.javatools.maputils.helpers.Format;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRecorderTest {
+
+    private static final String JSON = "{\"name\": \"James Butt\", \"friends\": [{\"name\": \"Josephine Darakjy\", \"age\": 22}]}";
+
+    @AfterEach
+    void tearDown() {
+        Metrics.unregister();
+    }
+
+    @Test
+    void recordTest() {
+        MetricsRecorder recorder = new MetricsRecorder(true);
+        Metrics.register(recorder);
+        Map person = MapCreator.create(JSON, Format.JSON);
+        MapSort.getSortedMap(person);
+        MapProperties.getProperties(person);
+        MapCompare.equal(person, person);
+        MapUpdate.set("friends[0].age", person, 23);
+
+        assertEquals(1, recorder.getCount(Operation.CREATE));
+        // getProperties sorts the map as well
+        assertEquals(2, recorder.getCount(Operation.SORT));
+        assertEquals(1, recorder.getCount(Operation.PROPERTIES));
+        assertEquals(1, recorder.getCount(Operation.COMPARE));
+        assertEquals(1, recorder.getCount(Operation.UPDATE));
+        assertTrue(recorder.getTotalNanos(Operation.SORT) > 0);
+        assertEquals(2, sum(recorder.getLatencyHistogram(Operation.SORT)));
+        // root, name, friends, the friend, its name and age
+        assertEquals(1, recorder.getNodeHistogram(Operation.CREATE)[MetricsRecorder.bucket(6)]);
+        assertEquals(1, recorder.getDepthHistogram(Operation.CREATE)[MetricsRecorder.bucket(3)]);
+        // the maps of the caller are not walked again
+        assertEquals(0, sum(recorder.getNodeHistogram(Operation.UPDATE)));
+        assertEquals(0, sum(recorder.getNodeHistogram(Operation.COMPARE)));
+
+        recorder.reset();
+        assertEquals(0, recorder.getCount(Operation.CREATE));
+        assertEquals(0, sum(recorder.getNodeHistogram(Operation.CREATE)));
+    }
+
+    @Test
+    void withoutTreesTest() {
+        MetricsRecorder recorder = new MetricsRecorder();
+        Metrics.register(recorder);
+        MapCreator.create(JSON, Format.JSON);
+        assertEquals(1, recorder.getCount(Operation.CREATE));
+        assertEquals(0, sum(recorder.getNodeHistogram(Operation.CREATE)));
+    }
+
+    @Test
+    void unregisterTest() {
+        List<Operation> operations = new ArrayList<>();
+        Metrics.register((operation, nanos, nodes, depth) -> operations.add(operation));
+        MapCreator.create(JSON, Format.JSON);
+        Metrics.unregister();
+        assertNull(Metrics.getListener());
+        assertEquals(Metrics.DISABLED, Metrics.start());
+        MapCreator.create(JSON, Format.JSON);
+        assertEquals(List.of(Operation.CREATE), operations);
+    }
+
+    @Test
+    void bucketTest() {
+        assertEquals(0, MetricsRecorder.bucket(0));
+        assertEquals(1, MetricsRecorder.bucket(1));
+        assertEquals(10, MetricsRecorder.bucket(512));
+        assertEquals(10, MetricsRecorder.bucket(1023));
+        assertEquals(63, MetricsRecorder.bucket(Long.MAX_VALUE));
+    }
+
+    private static long sum(final long[] histogram) {
+        long sum = 0;
+        for (long count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+}